@@ -9,16 +9,20 @@ import taboolib.common.platform.SkipTo;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.*;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.function.Consumer;
+import java.util.zip.CRC32;
 
 /**
  * 文件改动监听工具
+ * <p>
+ * 由 {@link WatchService} 事件驱动，每个目录只注册一次，由单个线程阻塞等待事件，不再定时轮询。
+ * 短时间内的连续事件会被合并（防抖），文件仅在内容摘要发生变化时才会触发回调。
  *
  * @author lzzelAliz
  */
@@ -30,16 +34,22 @@ public class FileWatcher implements Releasable {
     /**
      * 文件监听器单例
      */
-    public final static FileWatcher INSTANCE = new FileWatcher(500);
+    public final static FileWatcher INSTANCE = new FileWatcher(100);
 
     /**
-     * 定时执行服务，用于定期检查文件变动
+     * 防抖间隔（毫秒），在此期间内的连续事件只会触发一次回调
+     */
+    private final int interval;
+
+    /**
+     * 定时执行服务，用于执行防抖后的回调
      */
     private final ScheduledExecutorService executorService = Executors.newScheduledThreadPool(
             1,
             new BasicThreadFactory.Builder()
                     .namingPattern("TConfigWatcherService-%d")
                     .uncaughtExceptionHandler((t, e) -> e.printStackTrace())
+                    .daemon(true)
                     .build()
     );
 
@@ -48,24 +58,39 @@ public class FileWatcher implements Releasable {
      */
     private final Map<File, FileListener> fileListenerMap = new ConcurrentHashMap<>();
 
+    /**
+     * 按监听路径（规范化的绝对路径）索引的监听器，事件只需查找对应路径，无需遍历所有监听器
+     */
+    private final Map<Path, List<FileListener>> pathListenerMap = new ConcurrentHashMap<>();
+
+    /**
+     * 已注册的目录
+     */
+    private final Map<Path, WatchKey> directoryMap = new ConcurrentHashMap<>();
+
+    /**
+     * 等待中的回调，用于防抖
+     */
+    private final Map<String, ScheduledFuture<?>> pendingMap = new ConcurrentHashMap<>();
+
     /**
      * 共享的 WatchService 实例
      */
     private final WatchService watchService;
 
+    /**
+     * @param interval 防抖间隔（毫秒）
+     */
     public FileWatcher(int interval) {
+        this.interval = interval;
         try {
             this.watchService = FileSystems.getDefault().newWatchService();
-            this.executorService.scheduleAtFixedRate(() -> fileListenerMap.forEach((file, listener) -> {
-                try {
-                    listener.poll();
-                } catch (Throwable ex) {
-                    ex.printStackTrace();
-                }
-            }), 1000, interval, TimeUnit.MILLISECONDS);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        Thread thread = new Thread(this::watch, "TConfigWatcherService-events");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     /**
@@ -90,7 +115,23 @@ public class FileWatcher implements Releasable {
             runnable.accept(file);
         }
         try {
-            fileListenerMap.put(file, new FileListener(file, runnable, this));
+            FileListener listener = new FileListener(file, runnable, this);
+            // 每个目录只注册一次，多个文件共享同一个 WatchKey
+            // 失效的 WatchKey（例如目录被删除后重新创建）需要重新注册
+            WatchKey key = directoryMap.get(listener.directory);
+            if (key == null || !key.isValid()) {
+                directoryMap.put(listener.directory, listener.directory.register(
+                        watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY
+                ));
+            }
+            FileListener before = fileListenerMap.put(file, listener);
+            if (before != null) {
+                unindex(before);
+            }
+            pathListenerMap.computeIfAbsent(listener.path, it -> new CopyOnWriteArrayList<>()).add(listener);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -104,6 +145,7 @@ public class FileWatcher implements Releasable {
     public void removeListener(File file) {
         FileListener listener = fileListenerMap.remove(file);
         if (listener != null) {
+            unindex(listener);
             listener.cancel();
         }
     }
@@ -115,6 +157,120 @@ public class FileWatcher implements Releasable {
     public void release() {
         executorService.shutdown();
         fileListenerMap.values().forEach(FileListener::cancel);
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * 阻塞等待目录事件
+     */
+    private void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException ex) {
+                return;
+            }
+            Path directory = (Path) key.watchable();
+            List<WatchEvent<?>> events = key.pollEvents();
+            for (WatchEvent<?> event : events) {
+                if (event.context() instanceof Path) {
+                    Path fullPath = directory.resolve((Path) event.context());
+                    // 监听该目录的监听器
+                    dispatch(directory, fullPath, true);
+                    // 监听该文件的监听器
+                    dispatch(fullPath, fullPath, false);
+                }
+            }
+            // 目录已不可访问（例如被删除），移除失效的 WatchKey 以便之后重新注册
+            if (!key.reset()) {
+                directoryMap.remove(directory, key);
+            }
+        }
+    }
+
+    /**
+     * 为监听路径为 {@code path} 的监听器安排回调
+     *
+     * @param path        监听路径
+     * @param fullPath    发生变动的文件
+     * @param isDirectory 是否为监听目录的监听器
+     */
+    private void dispatch(Path path, Path fullPath, boolean isDirectory) {
+        List<FileListener> listeners = pathListenerMap.getOrDefault(path, Collections.emptyList());
+        for (FileListener listener : listeners) {
+            if (listener.isDirectory == isDirectory) {
+                schedule(listener, fullPath.toFile());
+            }
+        }
+    }
+
+    /**
+     * 从路径索引中移除监听器
+     */
+    private void unindex(FileListener listener) {
+        pathListenerMap.computeIfPresent(listener.path, (path, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    /**
+     * 合并短时间内的连续事件
+     */
+    private void schedule(FileListener listener, File file) {
+        String id = System.identityHashCode(listener) + ":" + file.getPath();
+        try {
+            ScheduledFuture<?> future = executorService.schedule(() -> {
+                pendingMap.remove(id);
+                try {
+                    listener.dispatch(file);
+                } catch (Throwable ex) {
+                    ex.printStackTrace();
+                }
+            }, interval, TimeUnit.MILLISECONDS);
+            ScheduledFuture<?> before = pendingMap.put(id, future);
+            if (before != null) {
+                before.cancel(false);
+            }
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    /**
+     * 释放不再被任何监听器使用的目录
+     */
+    private void releaseDirectory(Path directory) {
+        boolean used = fileListenerMap.values().stream().anyMatch(it -> it.directory.equals(directory));
+        if (!used) {
+            WatchKey key = directoryMap.remove(directory);
+            if (key != null) {
+                key.cancel();
+            }
+        }
+    }
+
+    /**
+     * 计算文件内容摘要，文件不存在时返回 -1
+     */
+    static long checksum(File file) {
+        if (!file.isFile()) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        } catch (IOException ex) {
+            return -1;
+        }
+        return crc.getValue();
     }
 
     /**
@@ -125,62 +281,46 @@ public class FileWatcher implements Releasable {
         final File file;
         final Consumer<File> callback;
         final FileWatcher fileWatcher;
-        final WatchKey watchKey;
+        final Path directory;
+        final boolean isDirectory;
+
+        /**
+         * 监听路径（规范化的绝对路径），监听目录时与 {@link #directory} 相同
+         */
+        final Path path;
+
+        /**
+         * 上一次回调时的文件内容摘要
+         */
+        volatile long checksum;
 
         FileListener(File file, Consumer<File> callback, FileWatcher fileWatcher) throws IOException {
             this.file = file;
             this.callback = callback;
             this.fileWatcher = fileWatcher;
-            Path path;
-            if (file.isDirectory()) {
-                path = file.toPath();
-            } else {
-                path = file.getParentFile().toPath();
-            }
-            watchKey = path.register(
-                    fileWatcher.watchService,
-                    StandardWatchEventKinds.ENTRY_CREATE,
-                    StandardWatchEventKinds.ENTRY_DELETE,
-                    StandardWatchEventKinds.ENTRY_MODIFY
-            );
+            this.isDirectory = file.isDirectory();
+            this.directory = (isDirectory ? file : file.getAbsoluteFile().getParentFile()).toPath().toAbsolutePath().normalize();
+            // 事件中的路径由注册的目录与文件名拼接而成，因此使用相同的方式构建，可直接比较
+            this.path = isDirectory ? directory : directory.resolve(file.getName());
+            this.checksum = isDirectory ? 0 : checksum(file);
         }
 
-        public void poll() {
-            watchKey.pollEvents().forEach(event -> {
-                if (event.context() instanceof Path) {
-                    Path path = (Path) event.context();
-                    Path fullPath = file.getParentFile().toPath().resolve(path);
-                    // 监听目录
-                    if (file.isDirectory()) {
-                        try {
-                            // 使用 relativize 检查路径关系，更加准确
-                            file.toPath().relativize(fullPath);
-                            callback.accept(fullPath.toFile());
-                        } catch (IllegalArgumentException ignored) {
-                            // 如果不是子路径，会抛出异常，直接忽略
-                        }
-                    }
-                    // 监听文件
-                    else if (isSameFile(fullPath, file.toPath())) {
-                        callback.accept(fullPath.toFile());  // 使用完整路径
-                    }
+        /**
+         * 防抖结束后执行，文件内容未变化时跳过
+         */
+        void dispatch(File changed) {
+            if (!isDirectory) {
+                long newChecksum = checksum(file);
+                if (newChecksum == checksum) {
+                    return;
                 }
-            });
-        }
-
-        public boolean isSameFile(Path path1, Path path2) {
-            try {
-                // 使用 Files.isSameFile() 判断两个路径是否指向同一个文件
-                // 该方法会考虑符号链接等情况
-                return Files.isSameFile(path1, path2);
-            } catch (IOException e) {
-                // 如果出现 IO 异常则返回 false
-                return false;
+                checksum = newChecksum;
             }
+            callback.accept(changed);
         }
 
         public void cancel() {
-            watchKey.cancel();
+            fileWatcher.releaseDirectory(directory);
         }
     }
 }
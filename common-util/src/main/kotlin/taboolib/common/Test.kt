@@ -1,5 +1,7 @@
 package taboolib.common
 
+import java.lang.management.ManagementFactory
+
 /**
  * TabooLib
  * taboolib.common.Test
@@ -93,6 +95,90 @@ abstract class Test {
             }
         }
 
+        /**
+         * 运行基准测试，每一项先预热再计时，结果中记录每一项的平均耗时与平均分配的内存
+         *
+         * ```
+         * benchmark("NMS:ItemTagCodec", 10000, mapOf("binary" to Runnable { ... }, "json" to Runnable { ... }))
+         * // [ SUCCESS ] : NMS:ItemTagCodec (binary=1.2us/op 312B/op, json=8.4us/op 2.1KB/op)
+         * ```
+         *
+         * 分配的内存只统计当前线程，在其他线程中完成的工作不会被计入；JVM 不支持统计时不显示。
+         *
+         * @param iterations 每一项的执行次数
+         * @param cases 名称与测试内容
+         * @param warmup 预热次数
+         */
+        fun benchmark(reason: String, iterations: Int, cases: Map<String, Runnable>, warmup: Int = iterations / 10): Result {
+            return try {
+                val times = cases.map { (name, case) ->
+                    repeat(warmup) { case.run() }
+                    val measurement = measure(iterations, case)
+                    "$name=${formatNanos(measurement.nanos)}/op" + (measurement.bytes?.let { " ${formatBytes(it)}/op" } ?: "")
+                }
+                Success.of("$reason (${times.joinToString(", ")})")
+            } catch (ex: UnsupportedVersionException) {
+                Unsupported(reason)
+            } catch (ex: Throwable) {
+                Failure.of(reason, ex)
+            }
+        }
+
+        /**
+         * 测量结果
+         *
+         * @param nanos 平均耗时（纳秒）
+         * @param bytes 当前线程平均分配的内存（字节），JVM 不支持统计时为 null
+         */
+        data class Measurement(val nanos: Long, val bytes: Long?)
+
+        /**
+         * 执行 [iterations] 次并测量平均耗时与当前线程平均分配的内存（不包含预热）
+         */
+        fun measure(iterations: Int, case: Runnable): Measurement {
+            val count = iterations.coerceAtLeast(1)
+            val bytes = allocatedBytes()
+            val time = System.nanoTime()
+            repeat(count) { case.run() }
+            val cost = System.nanoTime() - time
+            val allocated = allocatedBytes()
+            return Measurement(cost / count, if (bytes != null && allocated != null) (allocated - bytes) / count else null)
+        }
+
+        /**
+         * 获取当前线程已分配的内存（字节），JVM 不支持统计时返回 null
+         */
+        fun allocatedBytes(): Long? {
+            val bean = ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean ?: return null
+            return try {
+                if (!bean.isThreadAllocatedMemorySupported) {
+                    return null
+                }
+                if (!bean.isThreadAllocatedMemoryEnabled) {
+                    bean.isThreadAllocatedMemoryEnabled = true
+                }
+                bean.getThreadAllocatedBytes(Thread.currentThread().id).takeIf { it >= 0 }
+            } catch (_: UnsupportedOperationException) {
+                null
+            }
+        }
+
+        private fun formatNanos(nanos: Long): String {
+            return when {
+                nanos >= 1_000_000 -> "%.2fms".format(nanos / 1_000_000.0)
+                nanos >= 1_000 -> "%.2fus".format(nanos / 1_000.0)
+                else -> "${nanos}ns"
+            }
+        }
+
+        private fun formatBytes(bytes: Long): String {
+            return when {
+                bytes >= 1024 * 1024 -> "%.2fMB".format(bytes / 1024.0 / 1024.0)
+                bytes >= 1024 -> "%.2fKB".format(bytes / 1024.0)
+                else -> "${bytes}B"
+            }
+        }
+
         /**
          * 批量测试结果
          */
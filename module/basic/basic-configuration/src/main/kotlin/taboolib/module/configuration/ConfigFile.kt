@@ -65,7 +65,25 @@ open class ConfigFile(root: Config) : ConfigSection(root), Configuration {
                 The original file is not defined.
             """.trimIndent()
         )
-        saveFile.writeText(saveToString())
+        // 同步保存时取消等待中的异步保存
+        ConfigSaver.cancel(saveFile)
+        ConfigSaver.writeAtomically(saveFile, saveToString())
+    }
+
+    /**
+     * 异步保存到指定文件，参见 [ConfigSaver]。
+     *
+     * @param file 要保存到的文件，如果为 null 则使用当前关联的文件
+     * @throws IllegalStateException 如果未指定文件
+     */
+    override fun saveToFileAsync(file: File?) {
+        val saveFile = file ?: this.file ?: error(
+            """
+                原始文件未定义。
+                The original file is not defined.
+            """.trimIndent()
+        )
+        ConfigSaver.schedule(this, saveFile)
     }
 
     /**
@@ -143,6 +161,7 @@ open class ConfigFile(root: Config) : ConfigSection(root), Configuration {
      * @param type 新的配置类型
      */
     override fun changeType(type: Type) {
+        markModified()
         val format = type.newFormat()
         fun process(value: Any) {
             when (value) {
@@ -9,7 +9,6 @@ import taboolib.common.env.RuntimeDependencies
 import taboolib.common.env.RuntimeDependency
 import taboolib.common.inject.ClassVisitor
 import taboolib.common.platform.Awake
-import taboolib.common.platform.PlatformFactory
 import taboolib.common.platform.function.releaseResourceFile
 import taboolib.common.util.unsafeLazy
 import taboolib.common5.FileWatcher
@@ -78,10 +77,8 @@ class ConfigLoader : ClassVisitor(1) {
                     }
                 }
                 val configFile = ConfigNodeFile(conf, file)
-                conf.onReload {
-                    val loader = PlatformFactory.getAPI<ConfigNodeLoader>(ConfigNodeLoader::class.java.name)
-                    configFile.nodes.forEach { loader.visit(it, owner) }
-                }
+                // 仅更新发生变化的节点
+                conf.onReload { configFile.reload() }
                 files[name] = configFile
                 // 开发模式
                 PrimitiveIO.debug("Loaded config file: ${file.absolutePath}")
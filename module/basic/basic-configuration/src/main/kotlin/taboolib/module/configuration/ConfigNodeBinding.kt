@@ -0,0 +1,90 @@
+package taboolib.module.configuration
+
+import org.tabooproject.reflex.ClassField
+import org.tabooproject.reflex.ReflexClass
+import taboolib.common.inject.ClassVisitor
+import taboolib.common.platform.function.warning
+import taboolib.common.util.*
+import taboolib.common5.Coerce
+
+/**
+ * TabooLib
+ * taboolib.module.configuration.ConfigNodeBinding
+ *
+ * 被 [ConfigNode] 标注的字段与配置节点之间的绑定。
+ *
+ * 所属实例与类型转换函数在创建时解析一次，重载时比较节点的新旧值，
+ * 仅在值发生变化时才会重新写入字段（或刷新 [ConfigNodeTransfer]）。
+ *
+ * @param field 字段
+ * @param owner 字段所属类
+ * @param file 所属配置文件名称
+ * @param node 绑定的节点
+ */
+class ConfigNodeBinding(val field: ClassField, val owner: ReflexClass, val file: String, val node: String) {
+
+    /** 字段所属实例 */
+    private val instance = ClassVisitor.findInstance(owner)
+
+    /** 预编译的节点路径 */
+    private val path = ConfigPath.of(node)
+
+    /** 是否为类型转换工具 */
+    private val isTransfer = field.fieldType == ConfigNodeTransfer::class.java
+
+    /** 基本类型转换 */
+    private val converter: (Any) -> Any? = when (field.fieldType) {
+        Integer::class.java -> { data -> Coerce.toInteger(data) }
+        Character::class.java -> { data -> Coerce.toChar(data) }
+        JavaByte::class.java -> { data -> Coerce.toByte(data) }
+        JavaLong::class.java -> { data -> Coerce.toLong(data) }
+        JavaDouble::class.java -> { data -> Coerce.toDouble(data) }
+        JavaFloat::class.java -> { data -> Coerce.toFloat(data) }
+        JavaShort::class.java -> { data -> Coerce.toShort(data) }
+        JavaBoolean::class.java -> { data -> Coerce.toBoolean(data) }
+        else -> { data -> data }
+    }
+
+    /** 上一次写入的节点值（已解包） */
+    private var lastValue: Any? = null
+
+    /** 是否已写入 */
+    var isBound = false
+        private set
+
+    /**
+     * 从配置文件更新字段
+     *
+     * @param configuration 配置文件
+     * @param force 是否忽略新旧值比较
+     * @return 字段是否被更新
+     */
+    fun update(configuration: Configuration, force: Boolean = false): Boolean {
+        val data = path.get(configuration)
+        if (data == null) {
+            warning(
+                """
+                    $file 中未找到 $node 节点。
+                    $node not found in $file.
+                """.t()
+            )
+            return false
+        }
+        val value = ConfigSection.unwrap(data)
+        if (!force && isBound && value == lastValue) {
+            return false
+        }
+        if (isTransfer) {
+            (field.get(instance) as ConfigNodeTransfer<*, *>).reset(data)
+        } else {
+            field.set(instance, converter(data))
+        }
+        lastValue = value
+        isBound = true
+        return true
+    }
+
+    override fun toString(): String {
+        return "ConfigNodeBinding(field=${field.name}, file=$file, node=$node)"
+    }
+}
@@ -2,9 +2,68 @@ package taboolib.module.configuration
 
 import org.tabooproject.reflex.ClassField
 import java.io.File
+import java.util.concurrent.CopyOnWriteArrayList
 import java.util.concurrent.CopyOnWriteArraySet
 
 class ConfigNodeFile(val configuration: Configuration, val file: File) {
 
     val nodes = CopyOnWriteArraySet<ClassField>()
-}
\ No newline at end of file
+
+    /** 字段绑定 */
+    val bindings = CopyOnWriteArrayList<ConfigNodeBinding>()
+
+    /** 节点变化监听器 */
+    val listeners = CopyOnWriteArrayList<NodeListener>()
+
+    /**
+     * 监听节点变化，仅在重载后该节点的值发生变化时触发
+     *
+     * @param node 节点
+     * @param callback 回调
+     */
+    fun onChange(node: String, callback: (configuration: Configuration) -> Unit): NodeListener {
+        return NodeListener(node, callback).also {
+            it.check(configuration)
+            listeners += it
+        }
+    }
+
+    /**
+     * 重载后调用，仅更新值发生变化的字段，并通知对应节点的监听器
+     *
+     * @return 发生变化的字段
+     */
+    fun reload(): List<ConfigNodeBinding> {
+        val changed = bindings.filter { it.update(configuration) }
+        listeners.forEach {
+            if (it.check(configuration)) {
+                try {
+                    it.callback(configuration)
+                } catch (ex: Throwable) {
+                    ex.printStackTrace()
+                }
+            }
+        }
+        return changed
+    }
+
+    /**
+     * 节点变化监听器
+     */
+    class NodeListener(val node: String, val callback: (configuration: Configuration) -> Unit) {
+
+        private val path = ConfigPath.of(node)
+
+        private var lastValue: Any? = null
+
+        /** 检查节点是否发生变化，并记录当前值 */
+        fun check(configuration: Configuration): Boolean {
+            val value = ConfigSection.unwrap(path.get(configuration))
+            if (value == lastValue) {
+                return false
+            }
+            lastValue = value
+            return true
+        }
+    }
+}
@@ -7,8 +7,7 @@ import taboolib.common.LifeCycle
 import taboolib.common.inject.ClassVisitor
 import taboolib.common.platform.Awake
 import taboolib.common.platform.function.warning
-import taboolib.common.util.*
-import taboolib.common5.Coerce
+import taboolib.common.util.t
 
 @Inject
 @Awake
@@ -39,35 +38,10 @@ class ConfigNodeLoader : ClassVisitor(2) {
             file.nodes += field
             // 绑定的节点
             val bindNode = node.property("value", "").ifEmpty { field.name.substringBefore('$').toNode() }
-            var data = file.configuration[bindNode]
-            if (data == null) {
-                warning(
-                    """
-                        $bind 中未找到 $bindNode 节点。
-                        $bindNode not found in $bind.
-                    """.t()
-                )
-                return
-            }
-            // 类型转换工具
-            if (field.fieldType == ConfigNodeTransfer::class.java) {
-                val transfer = field.get(findInstance(owner)) as ConfigNodeTransfer<*, *>
-                transfer.reset(data)
-            } else {
-                // 基本类型转换
-                data = when (field.fieldType) {
-                    Integer::class.java -> Coerce.toInteger(data)
-                    Character::class.java -> Coerce.toChar(data)
-                    JavaByte::class.java -> Coerce.toByte(data)
-                    JavaLong::class.java -> Coerce.toLong(data)
-                    JavaDouble::class.java -> Coerce.toDouble(data)
-                    JavaFloat::class.java -> Coerce.toFloat(data)
-                    JavaShort::class.java -> Coerce.toShort(data)
-                    JavaBoolean::class.java -> Coerce.toBoolean(data)
-                    else -> data
-                }
-                field.set(findInstance(owner), data)
-            }
+            // 解析绑定，之后的重载由 ConfigNodeFile 直接处理
+            val binding = ConfigNodeBinding(field, owner, bind, bindNode)
+            file.bindings += binding
+            binding.update(file.configuration, force = true)
         }
     }
 
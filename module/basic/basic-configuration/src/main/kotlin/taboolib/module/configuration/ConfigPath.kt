@@ -0,0 +1,159 @@
+package taboolib.module.configuration
+
+import com.electronwill.nightconfig.core.Config
+import com.electronwill.nightconfig.core.NullObject
+import taboolib.common5.Coerce
+import taboolib.library.configuration.ConfigurationSection
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * TabooLib
+ * taboolib.module.configuration.ConfigPath
+ *
+ * 预编译的配置路径。
+ *
+ * 路径字符串只拆分一次，之后直接通过拆分后的键访问 night-config 节点，
+ * 读取时不再拆分字符串，也不会为父节点创建 [ConfigSection] 包装。
+ * 在每个事件或每 tick 读取配置的场景下，可将其保存为常量使用：
+ *
+ * ```
+ * val DAMAGE = ConfigPath.of("combat.damage.base")
+ *
+ * fun onDamage() {
+ *     val base = DAMAGE.getDouble(config)
+ * }
+ * ```
+ *
+ * @author agent
+ * @since 2026/10/19 12:27
+ */
+class ConfigPath private constructor(val path: String) {
+
+    /** 拆分后的键 */
+    val keys: List<String> = path.split('.')
+
+    /** 最后一个键（节点名称） */
+    val name: String = keys.last()
+
+    /**
+     * 获取原始值（未经解包）
+     * 与 [Config.getOrElse] 一致，显式的空值（[NullObject.NULL_OBJECT]）视为不存在
+     */
+    fun getRaw(config: Config): Any? {
+        val value = config.getRaw<Any?>(keys)
+        return if (value === NullObject.NULL_OBJECT) null else value
+    }
+
+    /**
+     * 获取原始值（未经解包）
+     */
+    fun getRaw(section: ConfigurationSection): Any? {
+        return if (section is ConfigSection) getRaw(section.root) else section[path]
+    }
+
+    /**
+     * 是否存在
+     */
+    fun contains(section: ConfigurationSection): Boolean {
+        return if (section is ConfigSection) section.root.contains(keys) else section.contains(path)
+    }
+
+    /**
+     * 获取值，与 [ConfigurationSection.get] 一致
+     */
+    fun get(section: ConfigurationSection): Any? {
+        return section[path]
+    }
+
+    /**
+     * 获取字符串，与 [ConfigurationSection.getString] 一致
+     */
+    fun getString(section: ConfigurationSection, def: String? = null): String? {
+        return when (val value = getRaw(section)) {
+            null -> def
+            // 子节点需要创建 ConfigSection
+            is Config, is Map<*, *> -> section[path]?.toString() ?: def
+            is List<*> -> (ConfigSection.unwrap(value) as List<*>).joinToString("\n")
+            else -> ConfigSection.unwrap(value)?.toString() ?: def
+        }
+    }
+
+    /**
+     * 获取整数，数值类型不经过类型转换
+     */
+    fun getInt(section: ConfigurationSection, def: Int = 0): Int {
+        return when (val value = getRaw(section)) {
+            null -> def
+            is Int -> value
+            is Number -> value.toInt()
+            else -> Coerce.toInteger(ConfigSection.unwrap(value) ?: def)
+        }
+    }
+
+    /**
+     * 获取长整数，数值类型不经过类型转换
+     */
+    fun getLong(section: ConfigurationSection, def: Long = 0): Long {
+        return when (val value = getRaw(section)) {
+            null -> def
+            is Long -> value
+            is Number -> value.toLong()
+            else -> Coerce.toLong(ConfigSection.unwrap(value) ?: def)
+        }
+    }
+
+    /**
+     * 获取浮点数，数值类型不经过类型转换
+     */
+    fun getDouble(section: ConfigurationSection, def: Double = 0.0): Double {
+        return when (val value = getRaw(section)) {
+            null -> def
+            is Double -> value
+            is Number -> value.toDouble()
+            else -> Coerce.toDouble(ConfigSection.unwrap(value) ?: def)
+        }
+    }
+
+    /**
+     * 获取布尔值
+     */
+    fun getBoolean(section: ConfigurationSection, def: Boolean = false): Boolean {
+        return when (val value = getRaw(section)) {
+            null -> def
+            is Boolean -> value
+            else -> Coerce.toBoolean(ConfigSection.unwrap(value) ?: def)
+        }
+    }
+
+    override fun equals(other: Any?): Boolean {
+        return other is ConfigPath && other.path == path
+    }
+
+    override fun hashCode(): Int {
+        return path.hashCode()
+    }
+
+    override fun toString(): String {
+        return path
+    }
+
+    companion object {
+
+        /** 缓存上限，防止动态拼接的路径无限增长 */
+        const val MAX_CACHE_SIZE = 8192
+
+        private val cache = ConcurrentHashMap<String, ConfigPath>()
+
+        /**
+         * 获取预编译的路径
+         */
+        fun of(path: String): ConfigPath {
+            cache[path]?.let { return it }
+            val compiled = ConfigPath(path)
+            if (cache.size < MAX_CACHE_SIZE) {
+                cache.putIfAbsent(path, compiled)?.let { return it }
+            }
+            return compiled
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package taboolib.module.configuration
+
+import taboolib.common.Inject
+import taboolib.common.LifeCycle
+import taboolib.common.io.digest
+import taboolib.common.platform.Awake
+import java.io.File
+import java.lang.ref.WeakReference
+import java.nio.file.AtomicMoveNotSupportedException
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.util.concurrent.*
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * TabooLib
+ * taboolib.module.configuration.ConfigSaver
+ *
+ * 配置文件异步保存工具。
+ *
+ * 在 [delay] 时间窗口内对同一文件的多次保存会被合并为一次，
+ * 写入在独立线程中进行，先写入临时文件再原子替换，避免写入中断导致文件损坏。
+ * 插件卸载时会同步写入所有等待中的保存，并等待保存线程结束。
+ *
+ * 配置自上一次写入后未被修改（见 [ConfigSection.modifications]）且文件未被外部修改时，跳过序列化与写入；
+ * 序列化后内容与上一次写入相同时跳过写入。
+ *
+ * 支持并发的配置在保存线程中序列化；非并发的配置（concurrent = false）无法在其他线程中安全读取，
+ * 因此在调用 [schedule] 的线程中序列化，保存线程只负责写入。
+ *
+ * @author agent
+ * @since 2026/10/19 12:29
+ */
+@Inject
+object ConfigSaver {
+
+    /** 合并保存的时间窗口（毫秒） */
+    var delay = 1000L
+
+    /** 插件卸载时等待保存线程结束的时间（毫秒） */
+    var shutdownTimeout = 10000L
+
+    /** 保存线程 */
+    private val executor = ScheduledThreadPoolExecutor(1) {
+        Thread(it, "TConfigSaveService").apply { isDaemon = true }
+    }.apply {
+        // 关闭后不再执行延迟任务，等待中的保存由 flush 同步写入
+        executeExistingDelayedTasksAfterShutdownPolicy = false
+    }
+
+    /** 等待中的保存 */
+    private val pending = ConcurrentHashMap<File, Pending>()
+
+    /** 每个文件上一次写入的记录 */
+    private val written = ConcurrentHashMap<File, Written>()
+
+    /** 保存次数 */
+    private val saveCount = LongAdder()
+
+    /** 被合并的保存次数 */
+    private val coalescedCount = LongAdder()
+
+    /** 配置未修改或内容未变化而跳过的次数 */
+    private val skippedCount = LongAdder()
+
+    /** 失败次数 */
+    private val failureCount = LongAdder()
+
+    /** 总耗时（纳秒） */
+    private val totalTime = LongAdder()
+
+    /** 最大耗时（纳秒） */
+    private val maxTime = AtomicLong()
+
+    /**
+     * 保存统计
+     *
+     * @param saves 实际写入次数
+     * @param coalesced 被合并的保存次数
+     * @param skipped 配置未修改或内容未变化而跳过的次数
+     * @param failures 失败次数
+     * @param pending 等待中的保存数量
+     * @param averageTime 平均耗时（毫秒，包含序列化）
+     * @param maxTime 最大耗时（毫秒，包含序列化）
+     */
+    data class Statistics(val saves: Long, val coalesced: Long, val skipped: Long, val failures: Long, val pending: Int, val averageTime: Double, val maxTime: Double)
+
+    /**
+     * 获取保存统计
+     */
+    val statistics: Statistics
+        get() {
+            val saves = saveCount.sum()
+            return Statistics(
+                saves,
+                coalescedCount.sum(),
+                skippedCount.sum(),
+                failureCount.sum(),
+                pending.size,
+                if (saves == 0L) 0.0 else totalTime.sum() / saves / 1_000_000.0,
+                maxTime.get() / 1_000_000.0
+            )
+        }
+
+    /**
+     * 在时间窗口结束后异步保存
+     * 窗口内重复调用只会保存一次（使用最后一次调用时的配置）
+     */
+    fun schedule(configuration: Configuration, file: File) {
+        val key = file.absoluteFile
+        // 配置未修改，不需要序列化
+        if (isClean(configuration, key)) {
+            skippedCount.increment()
+            return
+        }
+        // 非并发的配置在当前线程中序列化
+        val snapshot = if (isConcurrent(configuration)) null else Snapshot(configuration)
+        var created = false
+        val entry = pending.compute(key) { _, before ->
+            if (before != null) {
+                before.configuration = configuration
+                before.snapshot = snapshot
+                before
+            } else {
+                created = true
+                Pending(configuration, snapshot)
+            }
+        }!!
+        // 已有等待中的保存，合并
+        if (!created) {
+            coalescedCount.increment()
+            return
+        }
+        try {
+            entry.future = executor.schedule({ if (pending.remove(key, entry)) save(entry.configuration, key, entry.snapshot) }, delay, TimeUnit.MILLISECONDS)
+        } catch (_: RejectedExecutionException) {
+            // 线程池已关闭，直接保存
+            if (pending.remove(key, entry)) save(entry.configuration, key, entry.snapshot)
+        }
+    }
+
+    /**
+     * 取消等待中的保存
+     */
+    fun cancel(file: File) {
+        pending.remove(file.absoluteFile)?.future?.cancel(false)
+    }
+
+    /**
+     * 立即同步写入所有等待中的保存
+     */
+    fun flush() {
+        pending.keys.toList().forEach { key ->
+            val entry = pending.remove(key) ?: return@forEach
+            entry.future?.cancel(false)
+            save(entry.configuration, key, entry.snapshot)
+        }
+    }
+
+    /**
+     * 序列化并原子写入，配置未修改或内容未变化时跳过
+     * 在当前线程中序列化，非并发的配置需要在修改配置的线程中调用
+     */
+    fun save(configuration: Configuration, file: File) {
+        save(configuration, file, null)
+    }
+
+    /**
+     * 原子写入，[snapshot] 为空时在当前线程中序列化
+     */
+    private fun save(configuration: Configuration, file: File, snapshot: Snapshot?) {
+        val time = System.nanoTime()
+        try {
+            val key = file.absoluteFile
+            if (snapshot == null && isClean(configuration, key)) {
+                skippedCount.increment()
+                return
+            }
+            // 先读取修改计数再序列化，序列化期间发生的修改会在下一次保存时写入
+            val current = snapshot ?: Snapshot(configuration)
+            val digest = current.contents.digest("sha-1")
+            // 文件未被外部修改，且内容与上一次写入相同
+            val before = written[key]
+            if (before != null && before.digest == digest && before.lastModified == key.lastModified()) {
+                written[key] = Written(digest, before.lastModified, configuration, current.modifications)
+                skippedCount.increment()
+                return
+            }
+            writeAtomically(file, current.contents)
+            written[key] = Written(digest, key.lastModified(), configuration, current.modifications)
+            saveCount.increment()
+            val cost = System.nanoTime() - time
+            totalTime.add(cost)
+            maxTime.accumulateAndGet(cost) { a, b -> maxOf(a, b) }
+        } catch (ex: Throwable) {
+            failureCount.increment()
+            ex.printStackTrace()
+        }
+    }
+
+    /**
+     * 先写入同目录下的临时文件，再原子替换目标文件
+     * 临时文件名称唯一，不会与其他进程或同名文件冲突
+     */
+    @Synchronized
+    fun writeAtomically(file: File, contents: String) {
+        val target = file.absoluteFile
+        written.remove(target)
+        val parent = target.parentFile
+        parent?.mkdirs()
+        val temp = File.createTempFile(".${target.name}.", ".tmp", parent)
+        try {
+            temp.writeText(contents)
+            try {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING)
+            } catch (_: AtomicMoveNotSupportedException) {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING)
+            }
+        } finally {
+            // 写入或替换失败时清理临时文件
+            if (temp.exists()) {
+                temp.delete()
+            }
+        }
+    }
+
+    @Awake(LifeCycle.DISABLE)
+    private fun onDisable() {
+        flush()
+        executor.shutdown()
+        // 关闭前新加入的保存不会再被执行，再次同步写入
+        flush()
+        // 等待正在进行的保存
+        try {
+            executor.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS)
+        } catch (_: InterruptedException) {
+            Thread.currentThread().interrupt()
+        }
+    }
+
+    /**
+     * 配置自上一次写入 [file] 后未被修改，且文件未被外部修改
+     */
+    private fun isClean(configuration: Configuration, file: File): Boolean {
+        val modifications = modificationsOf(configuration) ?: return false
+        val before = written[file] ?: return false
+        return before.configuration.get() === configuration && before.modifications == modifications && before.lastModified == file.lastModified()
+    }
+
+    /**
+     * 配置能否在其他线程中安全读取
+     */
+    private fun isConcurrent(configuration: Configuration): Boolean {
+        return configuration is ConfigSection && configuration.root.valueMap() is ConcurrentMap<*, *>
+    }
+
+    /**
+     * 获取配置的修改计数，不支持时返回 null
+     */
+    private fun modificationsOf(configuration: Configuration): Long? {
+        return (configuration as? ConfigSection)?.modifications?.get()
+    }
+
+    /**
+     * 序列化结果及序列化前的修改计数
+     */
+    private class Snapshot(configuration: Configuration) {
+
+        val modifications = modificationsOf(configuration)
+
+        val contents = configuration.saveToString()
+    }
+
+    /**
+     * 上一次写入的记录
+     *
+     * @param digest 写入内容的摘要
+     * @param lastModified 写入后文件的修改时间
+     * @param configuration 写入的配置
+     * @param modifications 写入时配置的修改计数
+     */
+    private class Written(val digest: String, val lastModified: Long, configuration: Configuration, val modifications: Long?) {
+
+        val configuration = WeakReference(configuration)
+    }
+
+    private class Pending(@Volatile var configuration: Configuration, @Volatile var snapshot: Snapshot?) {
+
+        @Volatile
+        var future: ScheduledFuture<*>? = null
+    }
+}
@@ -9,6 +9,7 @@ import taboolib.common5.Coerce
 import taboolib.library.configuration.ConfigurationSection
 import taboolib.module.configuration.util.Commented
 import taboolib.module.configuration.util.CommentedList
+import java.util.concurrent.atomic.AtomicLong
 
 /**
  * TabooLib
@@ -21,6 +22,21 @@ open class ConfigSection(var root: Config, override val name: String = "", overr
 
     private val configType = Type.getType(root.configFormat())
 
+    /**
+     * 修改计数，由同一配置的所有节点共享
+     * 通过 [set]、[setComment]、[clear] 等方法修改配置时递增，[ConfigSaver] 据此跳过未修改配置的序列化
+     * 直接修改 [root] 后需要调用 [markModified]
+     */
+    var modifications = AtomicLong()
+        private set
+
+    /**
+     * 标记配置已被修改
+     */
+    fun markModified() {
+        modifications.incrementAndGet()
+    }
+
     override val primitiveConfig: Any
         get() = root
 
@@ -47,7 +63,7 @@ open class ConfigSection(var root: Config, override val name: String = "", overr
     }
 
     override fun contains(path: String): Boolean {
-        return root.contains(path)
+        return root.contains(ConfigPath.of(path).keys)
     }
 
     override fun get(path: String): Any? {
@@ -60,26 +76,37 @@ open class ConfigSection(var root: Config, override val name: String = "", overr
         if (path.isEmpty()) {
             return this
         }
-        var name = path
-        var parent: ConfigurationSection? = null
-        if (path.contains('.')) {
-            name = path.substringAfterLast('.')
-            parent = getConfigurationSection(path.substringBeforeLast('.').substringAfterLast('.'))
-        }
-        return when (val value = root.getOrElse(path, def)) {
-            is Config -> ConfigSection(value, name, parent)
+        // 使用预编译的路径，不再重复拆分
+        val compiled = ConfigPath.of(path)
+        return when (val value = compiled.getRaw(root) ?: def) {
+            is Config -> createChild(value, compiled.name, getParentSection(compiled))
             // 理论是无法获取到 Map 类型
             // 因为在 set 方法中 Map 会被转换为 Config 类型
             is Map<*, *> -> {
                 val subConfig = root.createSubConfig()
                 subConfig.setProperty("map", value)
-                ConfigSection(subConfig, name, parent)
+                createChild(subConfig, compiled.name, getParentSection(compiled))
             }
             else -> unwrap(value)
         }
     }
 
+    /**
+     * 获取父节点，仅在返回子节点时创建
+     */
+    private fun getParentSection(path: ConfigPath): ConfigurationSection? {
+        return if (path.keys.size > 1) getConfigurationSection(path.keys[path.keys.size - 2]) else null
+    }
+
+    /**
+     * 创建子节点，与当前节点共享修改计数
+     */
+    private fun createChild(config: Config, name: String, parent: ConfigurationSection?): ConfigSection {
+        return ConfigSection(config, name, parent).also { it.modifications = modifications }
+    }
+
     override fun set(path: String, value: Any?) {
+        markModified()
         when {
             value == null -> root.remove(path)
             value is List<*> -> root.set<Any>(path, unwrap(value, this))
@@ -99,8 +126,7 @@ open class ConfigSection(var root: Config, override val name: String = "", overr
     }
 
     override fun getString(path: String): String? {
-        val value = get(path) ?: return null
-        return if (value is List<*>) value.joinToString("\n") else value.toString()
+        return ConfigPath.of(path).getString(this)
     }
 
     override fun getString(path: String, def: String?): String? {
@@ -112,11 +138,11 @@ open class ConfigSection(var root: Config, override val name: String = "", overr
     }
 
     override fun getInt(path: String): Int {
-        return Coerce.toInteger(get(path))
+        return ConfigPath.of(path).getInt(this)
     }
 
     override fun getInt(path: String, def: Int): Int {
-        return Coerce.toInteger(get(path) ?: def)
+        return ConfigPath.of(path).getInt(this, def)
     }
 
     override fun isInt(path: String): Boolean {
@@ -125,11 +151,11 @@ open class ConfigSection(var root: Config, override val name: String = "", overr
     }
 
     override fun getBoolean(path: String): Boolean {
-        return Coerce.toBoolean(get(path))
+        return ConfigPath.of(path).getBoolean(this)
     }
 
     override fun getBoolean(path: String, def: Boolean): Boolean {
-        return Coerce.toBoolean(get(path) ?: def)
+        return ConfigPath.of(path).getBoolean(this, def)
     }
 
     override fun isBoolean(path: String): Boolean {
@@ -137,11 +163,11 @@ open class ConfigSection(var root: Config, override val name: String = "", overr
     }
 
     override fun getDouble(path: String): Double {
-        return Coerce.toDouble(get(path))
+        return ConfigPath.of(path).getDouble(this)
     }
 
     override fun getDouble(path: String, def: Double): Double {
-        return Coerce.toDouble(get(path) ?: def)
+        return ConfigPath.of(path).getDouble(this, def)
     }
 
     override fun isDouble(path: String): Boolean {
@@ -149,11 +175,11 @@ open class ConfigSection(var root: Config, override val name: String = "", overr
     }
 
     override fun getLong(path: String): Long {
-        return Coerce.toLong(get(path))
+        return ConfigPath.of(path).getLong(this)
     }
 
     override fun getLong(path: String, def: Long): Long {
-        return Coerce.toLong(get(path) ?: def)
+        return ConfigPath.of(path).getLong(this, def)
     }
 
     override fun isLong(path: String): Boolean {
@@ -237,7 +263,7 @@ open class ConfigSection(var root: Config, override val name: String = "", overr
             name = path.substringAfterLast('.')
             parent = getConfigurationSection(path.substringBeforeLast('.').substringAfterLast('.'))
         }
-        return ConfigSection(subConfig, name, parent)
+        return createChild(subConfig, name, parent)
     }
 
     override fun toMap(): Map<String, Any?> {
@@ -258,6 +284,7 @@ open class ConfigSection(var root: Config, override val name: String = "", overr
     }
 
     override fun setComment(path: String, comment: String?) {
+        markModified()
         (root as? CommentedConfig)?.setComment(path, if (comment?.isBlank() == true) null else comment)
     }
 
@@ -281,6 +308,7 @@ open class ConfigSection(var root: Config, override val name: String = "", overr
     }
 
     override fun clear() {
+        markModified()
         root.clear()
     }
 
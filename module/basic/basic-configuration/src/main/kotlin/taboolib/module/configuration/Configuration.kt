@@ -35,6 +35,16 @@ interface Configuration : ConfigurationSection {
      */
     fun saveToFile(file: File? = null)
 
+    /**
+     * 异步保存到文件
+     * 短时间内的多次保存会被合并，在独立线程中写入，插件卸载时同步写入
+     *
+     * @param file 文件
+     */
+    fun saveToFileAsync(file: File? = null) {
+        saveToFile(file)
+    }
+
     /**
      * 从文件加载
      *
@@ -0,0 +1,126 @@
+package taboolib.module.configuration.test
+
+import com.electronwill.nightconfig.core.Config
+import taboolib.common.Test
+import taboolib.library.configuration.ConfigurationSection
+import taboolib.module.configuration.ConfigPath
+import taboolib.module.configuration.ConfigSection
+import taboolib.module.configuration.Configuration
+import taboolib.module.configuration.Type
+
+/**
+ * TabooLib
+ * taboolib.module.configuration.test.TestConfigPath
+ *
+ * @author agent
+ * @since 2026/10/19 13:20
+ */
+object TestConfigPath : Test() {
+
+    /** 测试的路径，包括不存在的节点与不存在的父节点 */
+    val PATHS = listOf("a.b.c", "a.b.int", "a.b.list", "a.b", "a.b.empty", "a.b.tilde", "a.b.nil", "a.b.missing", "x.y.z", "a", "top")
+
+    override fun check(): List<Result> {
+        val yaml = Configuration.loadFromString(
+            """
+            top: value
+            a:
+              b:
+                c: hello
+                int: 10
+                list:
+                - 1
+                - 2
+                empty: "null"
+                tilde: "~"
+            """.trimIndent()
+        )
+        // JSON 中的 null 会被读取为显式的空值（NullObject）
+        val json = Configuration.loadFromString("""{"top":"value","a":{"b":{"c":"hello","int":10,"nil":null}}}""", Type.JSON)
+        val result = arrayListOf<Result>()
+        // 与修改前的 getString 结果一致
+        result += sandbox("Configuration:ConfigSection.getString()") {
+            listOf(yaml, json).forEach { config ->
+                PATHS.forEach { path ->
+                    val expected = legacyGetString(config, path)
+                    check(config.getString(path) == expected) { "${config.type}: $path, expected=$expected, actual=${config.getString(path)}" }
+                    check(config.getString(path, "def") == (expected ?: "def")) { "${config.type}: $path (def)" }
+                }
+            }
+        }
+        // 显式的空值与不存在的路径视为不存在，返回默认值
+        result += sandbox("Configuration:ConfigSection.getString() null") {
+            check(json.getString("a.b.nil") == null && json.getString("a.b.nil", "def") == "def")
+            check(json["a.b.nil"] == null && json["a.b.nil", "def"] == "def")
+            check(json.getInt("a.b.nil", 5) == 5)
+            check(ConfigPath.of("a.b.nil").getRaw(json) == null)
+            listOf(yaml, json).forEach { config ->
+                check(config.getString("a.b.missing") == null && config.getString("a.b.missing", "def") == "def")
+                check(config.getString("x.y.z") == null && config.getString("x.y.z", "def") == "def")
+                check(config.getInt("x.y.z", 5) == 5 && !config.contains("x.y.z"))
+            }
+        }
+        // 读取嵌套路径的耗时与分配的内存
+        result += benchmark(
+            "Configuration:ConfigSection.getString(\"a.b.c\")", 100000, mapOf(
+                "legacy" to Runnable { legacyGetString(yaml, "a.b.c") },
+                "compiled" to Runnable { yaml.getString("a.b.c") }
+            )
+        )
+        result += allocation(yaml)
+        return result
+    }
+
+    /**
+     * 读取嵌套路径时每次分配的内存少于修改前
+     */
+    private fun allocation(config: ConfigurationSection): Result {
+        val reason = "Configuration:ConfigSection.getString(\"a.b.c\") allocated bytes"
+        if (allocatedBytes() == null) {
+            return Unsupported(reason)
+        }
+        var legacy = 0L
+        var compiled = 0L
+        val result = sandbox(reason) {
+            repeat(10000) { legacyGetString(config, "a.b.c"); config.getString("a.b.c") }
+            legacy = measure(100000) { legacyGetString(config, "a.b.c") }.bytes!!
+            compiled = measure(100000) { config.getString("a.b.c") }.bytes!!
+            check(compiled < legacy) { "legacy=${legacy}B/op, compiled=${compiled}B/op" }
+        }
+        return if (result is Success) Success.of("$reason (legacy=${legacy}B/op, compiled=${compiled}B/op)") else result
+    }
+
+    /**
+     * 修改前的 getString
+     * 每次读取都拆分路径字符串并为父节点创建 ConfigSection
+     */
+    private fun legacyGetString(section: ConfigurationSection, path: String): String? {
+        val value = legacyGet(section, path) ?: return null
+        return if (value is List<*>) value.joinToString("\n") else value.toString()
+    }
+
+    /**
+     * 修改前的 get
+     */
+    private fun legacyGet(section: ConfigurationSection, path: String): Any? {
+        if (path.isEmpty()) {
+            return section
+        }
+        val root = (section as ConfigSection).root
+        var name = path
+        var parent: ConfigurationSection? = null
+        if (path.contains('.')) {
+            name = path.substringAfterLast('.')
+            parent = section.getConfigurationSection(path.substringBeforeLast('.').substringAfterLast('.'))
+        }
+        return when (val value = root.getOrElse<Any?>(path, null)) {
+            is Config -> ConfigSection(value, name, parent)
+            is Map<*, *> -> {
+                val subConfig = root.createSubConfig()
+                subConfig.set<Any>("map", value)
+                ConfigSection(subConfig, name, parent)
+            }
+            else -> ConfigSection.unwrap(value)
+        }
+    }
+}
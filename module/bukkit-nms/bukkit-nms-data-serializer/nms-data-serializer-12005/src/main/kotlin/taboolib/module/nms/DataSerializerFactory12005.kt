@@ -1,12 +1,14 @@
 package taboolib.module.nms
 
 import io.netty.buffer.ByteBufOutputStream
+import io.netty.buffer.PooledByteBufAllocator
 import io.netty.buffer.Unpooled
 import net.minecraft.core.IRegistryCustom
 import net.minecraft.network.RegistryFriendlyByteBuf
 import net.minecraft.network.chat.ComponentSerialization
 import org.bukkit.craftbukkit.v1_21_R1.util.CraftChatMessage
 import java.io.DataOutput
+import java.util.*
 
 /**
  * Adyeshach
@@ -54,6 +56,22 @@ class DataSerializerFactory12005(val buf: RegistryFriendlyByteBuf) : DataSeriali
         return this
     }
 
+    override fun writeVarInt(int: Int): DataSerializer {
+        return buf.writeVarIntFast(int).let { this }
+    }
+
+    override fun writeUUID(uuid: UUID): DataSerializer {
+        return buf.writeUUIDFast(uuid).let { this }
+    }
+
+    override fun writeString(string: String): DataSerializer {
+        return buf.writeUtfFast(string, Int.MAX_VALUE, 32767).let { this }
+    }
+
+    override fun writeUtf(string: String, length: Int): DataSerializer {
+        return buf.writeUtfFast(string, length, length * 3).let { this }
+    }
+
     override fun build(): Any {
         return buf
     }
@@ -62,6 +80,20 @@ class DataSerializerFactory12005(val buf: RegistryFriendlyByteBuf) : DataSeriali
         return ByteBufOutputStream(buf)
     }
 
+    override fun clear(): DataSerializer {
+        return buf.clear().let { this }
+    }
+
+    override fun release() {
+        if (buf.refCnt() > 0) {
+            buf.release()
+        }
+    }
+
+    override fun newPooledSerializer(): DataSerializer {
+        return DataSerializerFactory12005(RegistryFriendlyByteBuf(PooledByteBufAllocator.DEFAULT.buffer(), IRegistryCustom.EMPTY))
+    }
+
     override fun newSerializer(): DataSerializer {
         return DataSerializerFactory12005(RegistryFriendlyByteBuf(Unpooled.buffer(), IRegistryCustom.EMPTY))
     }
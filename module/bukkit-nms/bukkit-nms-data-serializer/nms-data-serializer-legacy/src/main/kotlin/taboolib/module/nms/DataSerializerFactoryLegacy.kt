@@ -1,6 +1,7 @@
 package taboolib.module.nms
 
 import io.netty.buffer.ByteBufOutputStream
+import io.netty.buffer.PooledByteBufAllocator
 import io.netty.buffer.Unpooled
 import io.netty.handler.codec.EncoderException
 import net.minecraft.SystemUtils
@@ -10,6 +11,7 @@ import net.minecraft.network.chat.ComponentSerialization
 import net.minecraft.network.chat.IChatBaseComponent
 import net.minecraft.server.v1_16_R3.PacketDataSerializer
 import java.io.DataOutput
+import java.util.*
 
 /**
  * Adyeshach
@@ -64,6 +66,22 @@ class DataSerializerFactoryLegacy(val buf: PacketDataSerializer) : DataSerialize
         return this
     }
 
+    override fun writeVarInt(int: Int): DataSerializer {
+        return buf.writeVarIntFast(int).let { this }
+    }
+
+    override fun writeUUID(uuid: UUID): DataSerializer {
+        return buf.writeUUIDFast(uuid).let { this }
+    }
+
+    override fun writeString(string: String): DataSerializer {
+        return buf.writeUtfFast(string, Int.MAX_VALUE, 32767).let { this }
+    }
+
+    override fun writeUtf(string: String, length: Int): DataSerializer {
+        return buf.writeUtfFast(string, length, length * 3).let { this }
+    }
+
     override fun build(): Any {
         return buf
     }
@@ -72,6 +90,20 @@ class DataSerializerFactoryLegacy(val buf: PacketDataSerializer) : DataSerialize
         return ByteBufOutputStream(buf)
     }
 
+    override fun clear(): DataSerializer {
+        return buf.clear().let { this }
+    }
+
+    override fun release() {
+        if (buf.refCnt() > 0) {
+            buf.release()
+        }
+    }
+
+    override fun newPooledSerializer(): DataSerializer {
+        return DataSerializerFactoryLegacy(PacketDataSerializer(PooledByteBufAllocator.DEFAULT.buffer()))
+    }
+
     override fun newSerializer(): DataSerializer {
         return DataSerializerFactoryLegacy(PacketDataSerializer(Unpooled.buffer()))
     }
@@ -4,6 +4,7 @@ import com.google.common.base.Charsets
 import com.google.common.collect.ForwardingMultimap
 import io.netty.handler.codec.EncoderException
 import org.tabooproject.reflex.Reflex.Companion.getProperty
+import java.io.Closeable
 import java.io.DataOutput
 import java.util.*
 
@@ -14,7 +15,7 @@ import java.util.*
  * @author 坏黑
  * @since 2022/12/12 23:00
  */
-interface DataSerializer {
+interface DataSerializer : Closeable {
 
     fun writeByte(byte: Byte): DataSerializer
 
@@ -136,4 +137,20 @@ interface DataSerializer {
     fun build(): Any
 
     fun dataOutput(): DataOutput
+
+    /**
+     * 清空缓冲区，以便在构建数据包后复用同一个 [DataSerializer]
+     */
+    fun clear(): DataSerializer
+
+    /**
+     * 释放底层缓冲区，释放后不可再使用
+     * 仅由 [pooledDataSerializerBuilder] 创建的 [DataSerializer] 需要释放，重复调用无副作用
+     */
+    fun release() {
+    }
+
+    override fun close() {
+        release()
+    }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package taboolib.module.nms
+
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.ByteBufUtil
+import io.netty.handler.codec.EncoderException
+import java.util.*
+
+/**
+ * 低版本服务端（netty 4.0）不存在 [ByteBufUtil.utf8Bytes] 与 [ByteBufUtil.reserveAndWriteUtf8]
+ */
+private val isUtf8FastPathSupported = try {
+    ByteBufUtil::class.java.getMethod("reserveAndWriteUtf8", ByteBuf::class.java, CharSequence::class.java, Int::class.javaPrimitiveType)
+    true
+} catch (_: NoSuchMethodException) {
+    false
+}
+
+/**
+ * 写入 VarInt，按长度合并为一次写入，而非逐字节写入
+ */
+fun ByteBuf.writeVarIntFast(value: Int): ByteBuf {
+    when {
+        value and (-1 shl 7) == 0 -> writeByte(value)
+        value and (-1 shl 14) == 0 -> {
+            writeShort(((value and 0x7F or 0x80) shl 8) or (value ushr 7))
+        }
+        value and (-1 shl 21) == 0 -> {
+            writeMedium(((value and 0x7F or 0x80) shl 16) or (((value ushr 7) and 0x7F or 0x80) shl 8) or (value ushr 14))
+        }
+        value and (-1 shl 28) == 0 -> {
+            writeInt(((value and 0x7F or 0x80) shl 24) or (((value ushr 7) and 0x7F or 0x80) shl 16) or (((value ushr 14) and 0x7F or 0x80) shl 8) or (value ushr 21))
+        }
+        else -> {
+            writeInt(((value and 0x7F or 0x80) shl 24) or (((value ushr 7) and 0x7F or 0x80) shl 16) or (((value ushr 14) and 0x7F or 0x80) shl 8) or ((value ushr 21) and 0x7F or 0x80))
+            writeByte(value ushr 28)
+        }
+    }
+    return this
+}
+
+/**
+ * 写入带 VarInt 长度前缀的 UTF-8 字符串，直接编码至缓冲区，不创建中间字节数组
+ *
+ * @param string 字符串
+ * @param maxLength 最大字符数
+ * @param maxBytes 最大字节数
+ */
+fun ByteBuf.writeUtfFast(string: String, maxLength: Int, maxBytes: Int): ByteBuf {
+    if (string.length > maxLength) {
+        throw EncoderException("String too big (was ${string.length} bytes encoded, max $maxLength)")
+    }
+    if (isUtf8FastPathSupported) {
+        val size = ByteBufUtil.utf8Bytes(string)
+        if (size > maxBytes) {
+            throw EncoderException("String too big (was $size bytes encoded, max $maxBytes)")
+        }
+        writeVarIntFast(size)
+        ByteBufUtil.reserveAndWriteUtf8(this, string, size)
+    } else {
+        val arr = string.encodeToByteArray()
+        if (arr.size > maxBytes) {
+            throw EncoderException("String too big (was ${arr.size} bytes encoded, max $maxBytes)")
+        }
+        writeVarIntFast(arr.size)
+        writeBytes(arr)
+    }
+    return this
+}
+
+/**
+ * 写入 [UUID]
+ */
+fun ByteBuf.writeUUIDFast(uuid: UUID): ByteBuf {
+    writeLong(uuid.mostSignificantBits)
+    writeLong(uuid.leastSignificantBits)
+    return this
+}
@@ -13,6 +13,13 @@ interface DataSerializerFactory {
 
     fun newSerializer(): DataSerializer
 
+    /**
+     * 创建基于池化缓冲区的 [DataSerializer]，使用完毕后需调用 [DataSerializer.release]
+     */
+    fun newPooledSerializer(): DataSerializer {
+        return newSerializer()
+    }
+
     companion object {
 
         val instance by unsafeLazy {
@@ -30,4 +37,24 @@ interface DataSerializerFactory {
  */
 fun dataSerializerBuilder(builder: DataSerializer.() -> Unit = {}): DataSerializer {
     return DataSerializerFactory.instance.newSerializer().also(builder)
-}
\ No newline at end of file
+}
+
+/**
+ * 创建一个基于池化缓冲区的 [DataSerializer]
+ *
+ * 适用于每刻需要构建大量数据包的场景，避免每次分配新的缓冲区。
+ * 构建数据包后必须调用 [DataSerializer.release] 归还缓冲区（或使用 use 语句），否则会造成内存泄漏：
+ * ```kotlin
+ * pooledDataSerializerBuilder { writeVarInt(1) }.use { packet = createPacket(it.build()) }
+ * ```
+ */
+fun pooledDataSerializerBuilder(builder: DataSerializer.() -> Unit = {}): DataSerializer {
+    val serializer = DataSerializerFactory.instance.newPooledSerializer()
+    try {
+        builder(serializer)
+    } catch (ex: Throwable) {
+        serializer.release()
+        throw ex
+    }
+    return serializer
+}
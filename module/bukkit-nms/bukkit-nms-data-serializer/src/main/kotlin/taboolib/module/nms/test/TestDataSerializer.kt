@@ -2,6 +2,8 @@ package taboolib.module.nms.test
 
 import taboolib.common.Test
 import taboolib.module.nms.dataSerializerBuilder
+import taboolib.module.nms.pooledDataSerializerBuilder
+import java.util.*
 
 /**
  * TabooLib
@@ -13,13 +15,52 @@ import taboolib.module.nms.dataSerializerBuilder
 object TestDataSerializer : Test() {
 
     override fun check(): List<Result> {
+        val uuid = UUID.randomUUID()
+        val unpooled = Runnable {
+            dataSerializerBuilder {
+                writeVarInt(1)
+                writeUtf("test")
+                writeUUID(uuid)
+            }.build()
+        }
+        val pooled = Runnable {
+            pooledDataSerializerBuilder {
+                writeVarInt(1)
+                writeUtf("test")
+                writeUUID(uuid)
+            }.use { it.build() }
+        }
         return listOf(
             sandbox("NMS:dataSerializerBuilder()") {
                 dataSerializerBuilder {
                     writeUtf("test")
                     writeVarInt(1)
                 }
-            }
+            },
+            sandbox("NMS:pooledDataSerializerBuilder()") {
+                pooledDataSerializerBuilder {
+                    writeUtf("test")
+                    writeVarInt(Int.MAX_VALUE)
+                    writeUUID(UUID.randomUUID())
+                }.use { it.clear().writeVarInt(-1) }
+            },
+            // 对比普通缓冲区与池化缓冲区的耗时与分配的内存
+            benchmark("NMS:DataSerializer allocation", 100000, mapOf("unpooled" to unpooled, "pooled" to pooled)),
+            // 池化缓冲区每次分配的内存少于普通缓冲区
+            allocation(unpooled, pooled),
         )
     }
-}
\ No newline at end of file
+
+    private fun allocation(unpooled: Runnable, pooled: Runnable): Result {
+        val reason = "NMS:DataSerializer allocated bytes"
+        if (allocatedBytes() == null) {
+            return Unsupported(reason)
+        }
+        return sandbox(reason) {
+            repeat(10000) { unpooled.run(); pooled.run() }
+            val before = measure(100000, unpooled).bytes!!
+            val after = measure(100000, pooled).bytes!!
+            check(after < before) { "unpooled=${before}B/op, pooled=${after}B/op" }
+        }
+    }
+}
@@ -23,6 +23,7 @@ import taboolib.common.util.t
 import taboolib.common.util.unsafeLazy
 import taboolib.module.nms.type.PlayerScoreboard
 import taboolib.module.nms.type.ChatColorFormat
+import taboolib.module.nms.type.ScoreboardDiff
 import taboolib.platform.util.*
 import java.util.*
 import java.util.concurrent.ConcurrentHashMap
@@ -126,6 +127,15 @@ abstract class NMSScoreboard {
      */
     abstract fun changeContent(player: Player, content: List<String>, lastContent: Map<Int, String>): Boolean
 
+    /**
+     * 根据差异生成记分板内容数据包（不发送）
+     * @param diff 记分板内容差异
+     */
+    abstract fun createContentPackets(player: Player, diff: ScoreboardDiff): List<Any>
+
+    /** 生成设置记分板标题的数据包（不发送）*/
+    abstract fun createDisplayNamePacket(player: Player, title: String): Any
+
     /** 显示记分板 */
     abstract fun display(player: Player)
 
@@ -207,18 +217,28 @@ class NMSScoreboardImpl : NMSScoreboard() {
             player.sendPacket(packet)
             return true
         }
-        val update = content.size != lastContent.size
-        if (update) {
-            updateLineCount(player, content.size, lastContent.size)
-        }
-        content.forEachIndexed { line, ct ->
-            if (update || ct != lastContent[line]) {
-                sendTeamPrefixSuffix(player, uniqueOwner[content.size - line - 1], ct)
-            }
+        val diff = ScoreboardDiff.compute(List(lastContent.size) { lastContent[it] ?: "" }, content)
+        if (!diff.isEmpty) {
+            player.sendBundlePacket(createContentPackets(player, diff))
         }
         return false
     }
 
+    override fun createContentPackets(player: Player, diff: ScoreboardDiff): List<Any> {
+        val objectiveName = getObjectiveName(player)
+        val packets = ArrayList<Any>(diff.packetCount)
+        if (!diff.addSlots.isEmpty()) {
+            validateLineCount(diff.addSlots.last + 1)
+        }
+        // 行数变多了，新增行
+        diff.addSlots.forEach { packets += createScorePacket(objectiveName, it) }
+        // 变少了，减少行
+        diff.removeSlots.forEach { packets += createResetScorePacket(objectiveName, it) }
+        // 更新内容发生变化的行
+        diff.updates.forEach { (slot, content) -> packets += createTeamPrefixSuffix(uniqueOwner[slot], content) }
+        return packets
+    }
+
     override fun display(player: Player) {
         val objectiveName = getObjectiveName(player)
         val packet = net.minecraft.server.v1_16_R3.PacketPlayOutScoreboardDisplayObjective::class.java.unsafeInstance()
@@ -238,6 +258,10 @@ class NMSScoreboardImpl : NMSScoreboard() {
     }
 
     override fun setDisplayName(player: Player, title: String) {
+        player.sendPacket(createDisplayNamePacket(player, title))
+    }
+
+    override fun createDisplayNamePacket(player: Player, title: String): Any {
         val packet = net.minecraft.server.v1_16_R3.PacketPlayOutScoreboardObjective::class.java.unsafeInstance()
         if (MinecraftVersion.isUniversal) {
             packet.setProperty("objectiveName", getObjectiveName(player))
@@ -255,7 +279,7 @@ class NMSScoreboardImpl : NMSScoreboard() {
             packet.setProperty("d", 2)
         }
         // endregion
-        player.sendPacket(packet)
+        return packet
     }
 
     /**
@@ -458,7 +482,7 @@ class NMSScoreboardImpl : NMSScoreboard() {
     /**
      * @param team 为\[content.size - line - 1\]
      */
-    private fun sendTeamPrefixSuffix(player: Player, team: String, content: String) {
+    private fun createTeamPrefixSuffix(team: String, content: String): Any {
         if (MinecraftVersion.major >= 9) {
             val packet = net.minecraft.server.v1_16_R3.PacketPlayOutScoreboardTeam::class.java.unsafeInstance()
             packet.setProperty("method", 2)
@@ -472,8 +496,7 @@ class NMSScoreboardImpl : NMSScoreboard() {
             if (MinecraftVersion.major >= 11) {
                 b.setProperty("playerSuffix", net.minecraft.network.chat.IChatBaseComponent.empty())
             }
-            handle1DuplicatedPacket(b, packet, player, net.minecraft.server.v1_16_R3.EnumChatFormat.RESET)
-            return
+            return handle1DuplicatedPacketBuild(b, packet, net.minecraft.server.v1_16_R3.EnumChatFormat.RESET)
         }
         // region Legacy Version
         if (MinecraftVersion.isHigherOrEqual(MinecraftVersion.V1_13)) {
@@ -481,8 +504,7 @@ class NMSScoreboardImpl : NMSScoreboard() {
             packet.setProperty("a", team) // 1.17 -> name
             packet.setProperty("c", component(content)) // 1.17 -> playerPrefix
             packet.setProperty("i", 2) // 1.17 -> method
-            player.sendPacket(packet)
-            return
+            return packet
         }
         var prefix = content
         var suffix = ""
@@ -504,89 +526,82 @@ class NMSScoreboardImpl : NMSScoreboard() {
         packet.setProperty(if (MinecraftVersion.major >= 1) "i" else "h", 2)
         packet.setProperty("c", prefix)
         packet.setProperty("d", suffix)
-        player.sendPacket(packet)
+        return packet
         // endregion
     }
 
-    private fun updateLineCount(player: Player, line: Int, lastLineCount: Int) {
-        val objectiveName = getObjectiveName(player)
-        // 行数变多了，新增行
-        if (validateLineCount(line) > lastLineCount) {
-            (lastLineCount until line).forEach { i ->
-                // 1.20.5 后两个参数改为 Optional
-                // String owner, String objectiveName, int score, Optional<IChatBaseComponent> display, Optional<NumberFormat> numberFormat
-                if (MinecraftVersion.versionId >= 12005) {
-                    player.sendPacket(PacketPlayOutScoreboardScore::class.java.invokeConstructor(uniqueOwner[i], objectiveName, i, Optional.empty<Any>(), Optional.empty<Any>()))
-                    return@forEach
-                }
-                // region Legacy Version
-                // 1.20.4 改为 Record
-                // String owner, String objectiveName, int score, @Nullable IChatBaseComponent display, @Nullable NumberFormat numberFormat
-                if (MinecraftVersion.majorLegacy > 12002) {
-                    player.sendPacket(PacketPlayOutScoreboardScore::class.java.invokeConstructor(uniqueOwner[i], objectiveName, i, null, null))
-                    return@forEach
-                }
-                // 1.13+ 直接实例化
-                if (MinecraftVersion.isHigherOrEqual(MinecraftVersion.V1_13)) {
-                    player.sendPacket(
-                        net.minecraft.server.v1_16_R3.PacketPlayOutScoreboardScore(
-                            net.minecraft.server.v1_16_R3.ScoreboardServer.Action.CHANGE,
-                            objectiveName,
-                            uniqueOwner[i],
-                            i
-                        )
-                    )
-                    return@forEach
-                }
-                // 1.12 反射处理
-                val packet = net.minecraft.server.v1_16_R3.PacketPlayOutScoreboardScore()
-                packet.setProperty("a", uniqueOwner[i])
-                packet.setProperty("b", objectiveName)
-                packet.setProperty("c", i)
-                packet.setProperty("d", net.minecraft.server.v1_12_R1.PacketPlayOutScoreboardScore.EnumScoreboardAction.CHANGE)
-                player.sendPacket(packet)
-                // endregion
-            }
+    /**
+     * 生成新增行（分数）的数据包
+     */
+    private fun createScorePacket(objectiveName: String, i: Int): Any {
+        // 1.20.5 后两个参数改为 Optional
+        // String owner, String objectiveName, int score, Optional<IChatBaseComponent> display, Optional<NumberFormat> numberFormat
+        if (MinecraftVersion.versionId >= 12005) {
+            return PacketPlayOutScoreboardScore::class.java.invokeConstructor(uniqueOwner[i], objectiveName, i, Optional.empty<Any>(), Optional.empty<Any>())
         }
-        // 变少了，减少行
-        else {
-            (line until lastLineCount).forEach { i ->
-                // 1.20.4
-                // 变成单独一个包了 -> ClientboundResetScorePacket
-                if (MinecraftVersion.majorLegacy > 12002) {
-                    player.sendPacket(ClientboundResetScorePacket::class.java.invokeConstructor(uniqueOwner[i], objectiveName))
-                    return@forEach
-                }
-                // region Legacy Version
-                // 1.13+
-                if (MinecraftVersion.isHigherOrEqual(MinecraftVersion.V1_13)) {
-                    player.sendPacket(
-                        net.minecraft.server.v1_16_R3.PacketPlayOutScoreboardScore(
-                            net.minecraft.server.v1_16_R3.ScoreboardServer.Action.REMOVE,
-                            uniqueOwner[i],
-                            objectiveName,
-                            i
-                        )
-                    )
-                    return@forEach
-                }
-                val packet = net.minecraft.server.v1_16_R3.PacketPlayOutScoreboardScore()
-                packet.setProperty("a", uniqueOwner[i])
-                packet.setProperty("b", objectiveName)
-                packet.setProperty("d", net.minecraft.server.v1_12_R1.PacketPlayOutScoreboardScore.EnumScoreboardAction.REMOVE)
-                player.sendPacket(packet)
-                // endregion
-            }
+        // region Legacy Version
+        // 1.20.4 改为 Record
+        // String owner, String objectiveName, int score, @Nullable IChatBaseComponent display, @Nullable NumberFormat numberFormat
+        if (MinecraftVersion.majorLegacy > 12002) {
+            return PacketPlayOutScoreboardScore::class.java.invokeConstructor(uniqueOwner[i], objectiveName, i, null, null)
+        }
+        // 1.13+ 直接实例化
+        if (MinecraftVersion.isHigherOrEqual(MinecraftVersion.V1_13)) {
+            return net.minecraft.server.v1_16_R3.PacketPlayOutScoreboardScore(
+                net.minecraft.server.v1_16_R3.ScoreboardServer.Action.CHANGE,
+                objectiveName,
+                uniqueOwner[i],
+                i
+            )
         }
+        // 1.12 反射处理
+        val packet = net.minecraft.server.v1_16_R3.PacketPlayOutScoreboardScore()
+        packet.setProperty("a", uniqueOwner[i])
+        packet.setProperty("b", objectiveName)
+        packet.setProperty("c", i)
+        packet.setProperty("d", net.minecraft.server.v1_12_R1.PacketPlayOutScoreboardScore.EnumScoreboardAction.CHANGE)
+        return packet
+        // endregion
+    }
+
+    /**
+     * 生成移除行（分数）的数据包
+     */
+    private fun createResetScorePacket(objectiveName: String, i: Int): Any {
+        // 1.20.4
+        // 变成单独一个包了 -> ClientboundResetScorePacket
+        if (MinecraftVersion.majorLegacy > 12002) {
+            return ClientboundResetScorePacket::class.java.invokeConstructor(uniqueOwner[i], objectiveName)
+        }
+        // region Legacy Version
+        // 1.13+
+        if (MinecraftVersion.isHigherOrEqual(MinecraftVersion.V1_13)) {
+            return net.minecraft.server.v1_16_R3.PacketPlayOutScoreboardScore(
+                net.minecraft.server.v1_16_R3.ScoreboardServer.Action.REMOVE,
+                uniqueOwner[i],
+                objectiveName,
+                i
+            )
+        }
+        val packet = net.minecraft.server.v1_16_R3.PacketPlayOutScoreboardScore()
+        packet.setProperty("a", uniqueOwner[i])
+        packet.setProperty("b", objectiveName)
+        packet.setProperty("d", net.minecraft.server.v1_12_R1.PacketPlayOutScoreboardScore.EnumScoreboardAction.REMOVE)
+        return packet
+        // endregion
     }
 
     private fun handle1DuplicatedPacket(b: Any, packet: Any, player: Player, color: net.minecraft.server.v1_16_R3.EnumChatFormat) {
+        player.sendPacket(handle1DuplicatedPacketBuild(b, packet, color))
+    }
+
+    private fun handle1DuplicatedPacketBuild(b: Any, packet: Any, color: net.minecraft.server.v1_16_R3.EnumChatFormat): Any {
         b.setProperty("nametagVisibility", "always")
         b.setProperty("collisionRule", "always")
         b.setProperty("color", color)
         b.setProperty("options", 3)
         packet.setProperty("parameters", Optional.of(b))
-        player.sendPacket(packet)
+        return packet
     }
 
     private fun handle1DuplicatedPacketAll(b: Any, packet: Any, color: net.minecraft.server.v1_16_R3.EnumChatFormat) {
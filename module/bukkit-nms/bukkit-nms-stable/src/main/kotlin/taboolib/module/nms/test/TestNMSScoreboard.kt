@@ -2,6 +2,7 @@ package taboolib.module.nms.test
 
 import taboolib.common.Test
 import taboolib.module.nms.sendScoreboard
+import taboolib.module.nms.type.ScoreboardDiff
 import taboolib.platform.util.onlinePlayers
 
 /**
@@ -14,15 +15,21 @@ import taboolib.platform.util.onlinePlayers
 object TestNMSScoreboard : Test() {
 
     override fun check(): List<Result> {
+        // 差异计算不依赖玩家
+        val result = arrayListOf(
+            sandbox("NMSScoreboard:ScoreboardDiff(unchanged)") { check(ScoreboardDiff.compute(listOf("a", "b"), listOf("a", "b")).packetCount == 0) },
+            // 顶部新增一行：新增一个分数并更新一行
+            sandbox("NMSScoreboard:ScoreboardDiff(insert)") { check(ScoreboardDiff.compute(listOf("a", "b"), listOf("c", "a", "b")).packetCount == 2) },
+            // 底部删除一行：移除一个分数，其余行下移各更新一次
+            sandbox("NMSScoreboard:ScoreboardDiff(remove)") { check(ScoreboardDiff.compute(listOf("a", "b", "c"), listOf("a", "b")).packetCount == 3) },
+            sandbox("NMSScoreboard:ScoreboardDiff(change)") { check(ScoreboardDiff.compute(listOf("a", "b", "c"), listOf("a", "x", "c")).updates.keys == setOf(1)) },
+        )
         val player = onlinePlayers.firstOrNull()
-        return if (player != null) {
-            listOf(
-                sandbox("NMSScoreboard:sendScoreboard()") { player.sendScoreboard("TEST", "123", "456") },
-                sandbox("NMSScoreboard:sendScoreboard()") { player.sendScoreboard("TEST", "123") },
-                sandbox("NMSScoreboard:sendScoreboard()") { player.sendScoreboard("TEST", "123", "456", "789") },
-            )
-        } else {
-            emptyList()
+        if (player != null) {
+            result += sandbox("NMSScoreboard:sendScoreboard()") { player.sendScoreboard("TEST", "123", "456") }
+            result += sandbox("NMSScoreboard:sendScoreboard()") { player.sendScoreboard("TEST", "123") }
+            result += sandbox("NMSScoreboard:sendScoreboard()") { player.sendScoreboard("TEST", "123", "456", "789") }
         }
+        return result
     }
 }
\ No newline at end of file
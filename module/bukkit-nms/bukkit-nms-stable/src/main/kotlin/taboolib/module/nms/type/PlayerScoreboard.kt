@@ -1,11 +1,19 @@
 package taboolib.module.nms.type
 
 import org.bukkit.entity.Player
+import taboolib.common.platform.function.submit
 import taboolib.module.nms.NMSScoreboard
 import taboolib.module.nms.nmsProxy
+import taboolib.module.nms.sendBundlePacket
+import taboolib.module.nms.sendPacket
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
 
 /**
  * 玩家记分板信息缓存
+ *
+ * 标题与内容的修改不会立即发送，而是在下一个游戏刻合并发送：
+ * 同一刻内多次修改只保留最终状态，仅发送发生变化的行，并在支持的版本中打包为一个数据包。
  */
 class PlayerScoreboard(val player: Player) {
 
@@ -15,8 +23,14 @@ class PlayerScoreboard(val player: Player) {
     /** 当前标题 */
     private var currentTitle = ""
 
-    /** 当前内容 */
-    private val currentContent = HashMap<Int, String>()
+    /** 当前内容（已发送至客户端）*/
+    private var currentContent = emptyList<String>()
+
+    /** 等待发送的标题 */
+    private var pendingTitle: String? = null
+
+    /** 等待发送的内容 */
+    private var pendingContent: List<String>? = null
 
     /** 当前前缀 */
     private var prefix = ""
@@ -38,32 +52,80 @@ class PlayerScoreboard(val player: Player) {
         nmsScoreboard.setupScoreboard(player, true)
         // 展示记分板
         nmsScoreboard.display(player)
-        // 设置标题
-        sendTitle(currentTitle)
     }
 
     /**
-     * 设置记分板标题
+     * 设置记分板标题，将在下一个游戏刻发送
      */
     fun sendTitle(title: String) {
-        if (currentTitle != title) {
-            currentTitle = title
-            nmsScoreboard.setDisplayName(player, title)
-        }
+        synchronized(this) { pendingTitle = title }
+        markDirty()
     }
 
     /**
-     * 设置记分板内容
+     * 设置记分板内容，将在下一个游戏刻发送
      */
     fun sendContent(lines: List<String>) {
-        // 如果记分板被删除，则重新创建记分板
-        if (isDeleted) {
-            nmsScoreboard.setupScoreboard(player, false, currentTitle)
-            nmsScoreboard.display(player)
+        synchronized(this) { pendingContent = lines.toList() }
+        markDirty()
+    }
+
+    /**
+     * 立即发送等待中的标题与内容
+     */
+    fun flush() {
+        synchronized(this) {
+            val title = pendingTitle
+            val content = pendingContent
+            pendingTitle = null
+            pendingContent = null
+            val packets = ArrayList<Any>()
+            // 如果记分板被删除，则重新创建记分板
+            if (isDeleted && !content.isNullOrEmpty()) {
+                currentTitle = title ?: currentTitle
+                nmsScoreboard.setupScoreboard(player, false, currentTitle)
+                nmsScoreboard.display(player)
+                currentContent = emptyList()
+                isDeleted = false
+            } else if (title != null && title != currentTitle) {
+                currentTitle = title
+                // 记分板已被删除时仅记录标题，待重新创建时使用
+                if (!isDeleted) {
+                    packets += nmsScoreboard.createDisplayNamePacket(player, title)
+                }
+            }
+            if (content != null) {
+                if (content.isEmpty()) {
+                    if (!isDeleted) {
+                        sendPackets(packets)
+                        packets.clear()
+                        isDeleted = nmsScoreboard.changeContent(player, content, emptyMap())
+                    }
+                } else {
+                    packets += nmsScoreboard.createContentPackets(player, ScoreboardDiff.compute(currentContent, content))
+                }
+                currentContent = content
+            }
+            sendPackets(packets)
+        }
+    }
+
+    private fun sendPackets(packets: List<Any>) {
+        when (packets.size) {
+            0 -> {}
+            1 -> player.sendPacket(packets[0])
+            else -> player.sendBundlePacket(packets)
+        }
+    }
+
+    private fun markDirty() {
+        dirtyScoreboards += this
+        if (isFlushScheduled.compareAndSet(false, true)) {
+            submit {
+                isFlushScheduled.set(false)
+                flushAll()
+            }
         }
-        isDeleted = nmsScoreboard.changeContent(player, lines, currentContent)
-        currentContent.clear()
-        currentContent.putAll(lines.mapIndexed { index, s -> index to s }.toMap())
     }
 
     /**
@@ -110,4 +172,27 @@ class PlayerScoreboard(val player: Player) {
         this.isCreated = true
         nmsScoreboard.updateTeam(player, prefix, suffix, color, !isCreated, target)
     }
-}
\ No newline at end of file
+
+    companion object {
+
+        /** 等待发送的记分板 */
+        private val dirtyScoreboards = ConcurrentHashMap.newKeySet<PlayerScoreboard>()
+
+        /** 是否已安排发送任务 */
+        private val isFlushScheduled = AtomicBoolean(false)
+
+        /**
+         * 发送所有等待中的记分板，每个玩家每刻至多发送一次
+         */
+        fun flushAll() {
+            val iterator = dirtyScoreboards.iterator()
+            while (iterator.hasNext()) {
+                val scoreboard = iterator.next()
+                iterator.remove()
+                if (scoreboard.player.isOnline) {
+                    scoreboard.flush()
+                }
+            }
+        }
+    }
+}
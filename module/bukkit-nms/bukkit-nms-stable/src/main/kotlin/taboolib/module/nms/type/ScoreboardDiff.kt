@@ -0,0 +1,55 @@
+package taboolib.module.nms.type
+
+/**
+ * 记分板内容差异
+ *
+ * 记分板的每一行对应一个队伍（槽位），槽位从底部开始计数，第 0 个槽位为最后一行。
+ * 因此在顶部增加或删除一行时，其余行所在的槽位不变，无需重新发送；
+ * 位置发生变化的行只需对新槽位发送一次前缀更新。
+ *
+ * 此类不涉及任何 NMS 操作，可在没有服务端的情况下计算数据包数量。
+ *
+ * @param addSlots 需要新增分数的槽位
+ * @param removeSlots 需要移除分数的槽位
+ * @param updates 需要更新内容的槽位及其内容
+ */
+class ScoreboardDiff(val addSlots: IntRange, val removeSlots: IntRange, val updates: Map<Int, String>) {
+
+    /** 是否没有任何变化 */
+    val isEmpty: Boolean
+        get() = addSlots.isEmpty() && removeSlots.isEmpty() && updates.isEmpty()
+
+    /** 需要发送的数据包数量（不含打包数据包本身）*/
+    val packetCount: Int
+        get() = addSlots.count() + removeSlots.count() + updates.size
+
+    override fun toString(): String {
+        return "ScoreboardDiff(addSlots=$addSlots, removeSlots=$removeSlots, updates=$updates)"
+    }
+
+    companion object {
+
+        /**
+         * 计算两次记分板内容之间的差异
+         *
+         * @param lastContent 上一次发送的内容（自上而下），为 null 时视为客户端状态未知，将发送全部内容
+         * @param content 本次内容（自上而下）
+         */
+        fun compute(lastContent: List<String>?, content: List<String>): ScoreboardDiff {
+            val last = lastContent ?: emptyList()
+            val updates = LinkedHashMap<Int, String>()
+            content.forEachIndexed { line, text ->
+                val slot = content.size - line - 1
+                val lastLine = last.size - slot - 1
+                if (lastContent == null || lastLine < 0 || last[lastLine] != text) {
+                    updates[slot] = text
+                }
+            }
+            return ScoreboardDiff(
+                if (lastContent == null) 0 until content.size else last.size until content.size,
+                content.size until last.size,
+                updates
+            )
+        }
+    }
+}
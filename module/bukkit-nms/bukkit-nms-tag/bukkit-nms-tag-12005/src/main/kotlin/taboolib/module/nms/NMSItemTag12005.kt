@@ -37,8 +37,9 @@ class NMSItemTag12005 : NMSItemTag() {
     override fun getItemTag(itemStack: ItemStack, onlyCustom: Boolean): ItemTag {
         val nmsItem = getNMSCopy(itemStack)
         return if (onlyCustom) {
-            val tag = nmsItem.get(DataComponents.CUSTOM_DATA)?.copyTag()
-            if (tag != null) itemTagToBukkitCopy(tag).asCompound() else ItemTag()
+            // CustomData 不可变，且视图不会修改原始 NBTTagCompound，因此无需复制
+            val tag = nmsItem.get(DataComponents.CUSTOM_DATA)?.unsafe
+            if (tag != null) ItemTagView(tag) else ItemTag()
         } else {
             val tag = nmsItem.save(CraftRegistry.getMinecraftRegistry())
             if (tag != null) itemTagToBukkitCopy(tag, true).asCompound() else ItemTag12005() // 返回一个特殊的 ItemTag
@@ -61,6 +62,10 @@ class NMSItemTag12005 : NMSItemTag() {
     }
 
     override fun itemTagToNMSCopy(itemTagData: ItemTagData): NBTBase {
+        // 未被修改的视图直接复制原始数据
+        if (itemTagData is ItemTagView && itemTagData.isPristine) {
+            return compoundCopy(itemTagData.handle)
+        }
         return when (itemTagData.type) {
             // 基本类型
             ItemTagType.BYTE -> NBTTagByte.valueOf(itemTagData.asByte())
@@ -104,6 +109,22 @@ class NMSItemTag12005 : NMSItemTag() {
         return itemTagToBukkitCopy(nbtTag, false)
     }
 
+    override fun itemTagToBukkitView(nbtTag: Any): ItemTagData {
+        return if (nbtTag is NBTTagCompound) ItemTagView(nbtTag) else itemTagToBukkitCopy(nbtTag, false)
+    }
+
+    override fun compoundKeys(nbtTag: Any): Set<String> {
+        return (nbtTag as NBTTagCompound).allKeys
+    }
+
+    override fun compoundGet(nbtTag: Any, key: String): Any? {
+        return (nbtTag as NBTTagCompound).get(key)
+    }
+
+    override fun compoundCopy(nbtTag: Any): NBTTagCompound {
+        return (nbtTag as NBTTagCompound).copy()
+    }
+
     private fun itemTagToBukkitCopy(nbtTag: Any, onlyCustom: Boolean): ItemTagData {
         return when (nbtTag) {
             // 基本类型
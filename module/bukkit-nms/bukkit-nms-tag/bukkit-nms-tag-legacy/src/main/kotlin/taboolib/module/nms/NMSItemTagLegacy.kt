@@ -57,7 +57,8 @@ open class NMSItemTagLegacy : NMSItemTag() {
 
     override fun getItemTag(itemStack: ItemStack, onlyCustom: Boolean): ItemTag {
         val nmsItem = getNMSCopy(itemStack)
-        return if (nmsItem.hasTag()) itemTagToBukkitCopy(nmsItem.tag!!).asCompound() else ItemTag()
+        // NMS 物品本身即为副本，视图不会修改其 NBTTagCompound
+        return if (nmsItem.hasTag()) ItemTagView(nmsItem.tag!!) else ItemTag()
     }
 
     override fun setItemTag(itemStack: ItemStack, itemTag: ItemTag, onlyCustom: Boolean): ItemStack {
@@ -167,6 +168,18 @@ open class NMSItemTagLegacy : NMSItemTag() {
         }
     }
 
+    override fun itemTagToBukkitView(nbtTag: Any): ItemTagData {
+        return if (nbtTag is NBTTagCompound12) ItemTagView(nbtTag) else itemTagToBukkitCopy(nbtTag)
+    }
+
+    override fun compoundKeys(nbtTag: Any): Set<String> {
+        return nbtTagCompoundGetter.get<Map<String, Any>>(nbtTag).keys
+    }
+
+    override fun compoundGet(nbtTag: Any, key: String): Any? {
+        return nbtTagCompoundGetter.get<Map<String, Any>>(nbtTag)[key]
+    }
+
     private inline fun <reified T> unreflectGetter(name: String): MethodHandle {
         return UnsafeAccess.lookup.unreflectGetter(T::class.java.getDeclaredField(name).apply { isAccessible = true })
     }
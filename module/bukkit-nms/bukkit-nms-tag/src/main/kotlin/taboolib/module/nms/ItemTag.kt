@@ -18,6 +18,14 @@ open class ItemTag : ItemTagData, MutableMap<String, ItemTagData> {
 
     private val value = ConcurrentHashMap<String, ItemTagData>()
 
+    /**
+     * 获取内部容器，所有读写操作均经过此方法
+     * 子类（例如 [ItemTagView]）可在首次访问时再填充容器
+     */
+    protected open fun container(): MutableMap<String, ItemTagData> {
+        return value
+    }
+
     constructor() : super(ItemTagType.COMPOUND, 0) {
         this.data = this
     }
@@ -48,6 +56,15 @@ open class ItemTag : ItemTagData, MutableMap<String, ItemTagData> {
         return serializeData(this).toString()
     }
 
+    /**
+     * 转换为原版 NBT 二进制格式（可逆向），体积与速度均优于 Json
+     * @param compressed 是否使用 GZIP 压缩
+     * @return 字节数组
+     */
+    fun toBytes(compressed: Boolean = true): ByteArray {
+        return ItemTagCodec.encode(this, compressed)
+    }
+
     /**
      * 转换为格式化的 Json 字符串（可逆向）
      * @return 格式化的 Json 字符串
@@ -67,7 +84,7 @@ open class ItemTag : ItemTagData, MutableMap<String, ItemTagData> {
     override fun toJsonSimplified(index: Int): String {
         val builder = StringBuilder()
         builder.append("{\n")
-        value.forEach { (k: String?, v: ItemTagData) ->
+        container().forEach { (k: String?, v: ItemTagData) ->
             builder.append("  ".repeat(index + 1))
                 .append("\"")
                 .append(k)
@@ -81,27 +98,27 @@ open class ItemTag : ItemTagData, MutableMap<String, ItemTagData> {
     }
 
     override val entries: MutableSet<MutableMap.MutableEntry<String, ItemTagData>>
-        get() = value.entries
+        get() = container().entries
 
     override val keys: MutableSet<String>
-        get() = value.keys
+        get() = container().keys
 
     override val size: Int
-        get() = value.size
+        get() = container().size
 
     override val values: MutableCollection<ItemTagData>
-        get() = value.values
+        get() = container().values
 
     override fun clear() {
-        value.clear()
+        container().clear()
     }
 
     override fun isEmpty(): Boolean {
-        return value.isEmpty()
+        return container().isEmpty()
     }
 
     override fun remove(key: String): ItemTagData? {
-        return value.remove(key)
+        return container().remove(key)
     }
 
     /**
@@ -122,18 +139,18 @@ open class ItemTag : ItemTagData, MutableMap<String, ItemTagData> {
     }
 
     override fun putAll(from: Map<out String, ItemTagData>) {
-        value += from
+        container().putAll(from)
     }
 
     override fun put(key: String, value: ItemTagData): ItemTagData? {
-        return this.value.put(key, value)
+        return container().put(key, value)
     }
 
     fun put(key: String, value: Any?): ItemTagData? {
         return if (value == null) {
             remove(key)
         } else {
-            this.value.put(key, toNBT(value))
+            container().put(key, toNBT(value))
         }
     }
 
@@ -158,11 +175,11 @@ open class ItemTag : ItemTagData, MutableMap<String, ItemTagData> {
     }
 
     override fun get(key: String): ItemTagData? {
-        return value[key]
+        return container()[key]
     }
 
     fun getOrElse(key: String, base: ItemTagData): ItemTagData {
-        return value.getOrDefault(key, base)
+        return get(key) ?: base
     }
 
     /**
@@ -231,22 +248,22 @@ open class ItemTag : ItemTagData, MutableMap<String, ItemTagData> {
     }
 
     override fun containsValue(value: ItemTagData): Boolean {
-        return this.value.containsValue(value)
+        return container().containsValue(value)
     }
 
     override fun containsKey(key: String): Boolean {
-        return value.containsKey(key)
+        return container().containsKey(key)
     }
 
     override fun equals(other: Any?): Boolean {
         if (this === other) return true
         if (other !is ItemTag) return false
-        if (value != other.value) return false
+        if (container() != other.container()) return false
         return true
     }
 
     override fun hashCode(): Int {
-        return value.hashCode()
+        return container().hashCode()
     }
 
     override fun toString(): String {
@@ -308,6 +325,17 @@ open class ItemTag : ItemTagData, MutableMap<String, ItemTagData> {
             return fromJson(JsonParser().parse(json)).asCompound()
         }
 
+        /**
+         * 从原版 NBT 二进制格式创建 [ItemTag] 对象，自动识别是否经过 GZIP 压缩。
+         *
+         * @param bytes 由 [toBytes] 产出的字节数组
+         * @return 解析后的 [ItemTag] 对象
+         */
+        @JvmStatic
+        fun fromBytes(bytes: ByteArray): ItemTag {
+            return ItemTagCodec.decode(bytes)
+        }
+
         /**
          * 从 [JsonElement] 创建 [ItemTagData] 对象。
          *
@@ -0,0 +1,219 @@
+package taboolib.module.nms
+
+import java.io.*
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+
+/**
+ * 以原版 NBT 二进制格式读写 [ItemTag] 的工具方法
+ *
+ * 与 [ItemTag.toJson] 不同，此编码直接在流上进行，不会构建中间 Json 对象，
+ * 产出的数据可被原版 NbtIo 读取（根节点为无名 Compound），压缩格式为 GZIP。
+ */
+object ItemTagCodec {
+
+    /** 最大嵌套深度，与原版一致 */
+    const val MAX_DEPTH = 512
+
+    /**
+     * 将 [ItemTag] 编码为字节数组
+     *
+     * @param tag 要编码的 ItemTag
+     * @param compressed 是否使用 GZIP 压缩
+     * @return 编码后的字节数组
+     */
+    fun encode(tag: ItemTag, compressed: Boolean = true): ByteArray {
+        val bytes = ByteArrayOutputStream()
+        write(tag, bytes, compressed)
+        return bytes.toByteArray()
+    }
+
+    /**
+     * 从字节数组解码 [ItemTag]，自动识别是否经过 GZIP 压缩
+     *
+     * @param bytes 要解码的字节数组
+     * @return 解码后的 ItemTag
+     */
+    fun decode(bytes: ByteArray): ItemTag {
+        return read(ByteArrayInputStream(bytes))
+    }
+
+    /**
+     * 将 [ItemTag] 写入输出流，不会关闭传入的流
+     *
+     * @param tag 要写入的 ItemTag
+     * @param stream 输出流
+     * @param compressed 是否使用 GZIP 压缩
+     */
+    fun write(tag: ItemTag, stream: OutputStream, compressed: Boolean = true) {
+        if (compressed) {
+            val gzip = GZIPOutputStream(NonClosingOutputStream(stream))
+            DataOutputStream(BufferedOutputStream(gzip)).use { writeRoot(tag, it) }
+        } else {
+            val output = DataOutputStream(BufferedOutputStream(NonClosingOutputStream(stream)))
+            output.use { writeRoot(tag, it) }
+        }
+    }
+
+    /**
+     * 从输入流读取 [ItemTag]，自动识别是否经过 GZIP 压缩，不会关闭传入的流
+     *
+     * @param stream 输入流
+     * @return 读取到的 ItemTag
+     */
+    fun read(stream: InputStream): ItemTag {
+        val buffered = if (stream.markSupported()) stream else BufferedInputStream(stream)
+        buffered.mark(2)
+        val magic = buffered.read() or (buffered.read() shl 8)
+        buffered.reset()
+        val input = if (magic == GZIPInputStream.GZIP_MAGIC) GZIPInputStream(buffered) else buffered
+        return readRoot(DataInputStream(input))
+    }
+
+    /**
+     * 写入根节点（类型 + 空名称 + 数据）
+     */
+    fun writeRoot(tag: ItemTag, output: DataOutput) {
+        output.writeByte(ItemTagType.COMPOUND.id.toInt())
+        output.writeUTF("")
+        writeData(tag, output, 0)
+    }
+
+    /**
+     * 读取根节点（类型 + 名称 + 数据）
+     */
+    fun readRoot(input: DataInput): ItemTag {
+        val type = input.readByte()
+        if (type != ItemTagType.COMPOUND.id) {
+            error("Root tag must be a compound (type: $type)")
+        }
+        input.readUTF()
+        return readData(ItemTagType.COMPOUND, input, 0).asCompound()
+    }
+
+    /**
+     * 写入 [ItemTagData] 的数据部分（不含类型与名称）
+     */
+    fun writeData(data: ItemTagData, output: DataOutput, depth: Int) {
+        if (depth > MAX_DEPTH) {
+            error("Tried to write NBT tag with too high complexity, depth > $MAX_DEPTH")
+        }
+        when (data.type) {
+            ItemTagType.BYTE -> output.writeByte(data.asByte().toInt())
+            ItemTagType.SHORT -> output.writeShort(data.asShort().toInt())
+            ItemTagType.INT -> output.writeInt(data.asInt())
+            ItemTagType.LONG -> output.writeLong(data.asLong())
+            ItemTagType.FLOAT -> output.writeFloat(data.asFloat())
+            ItemTagType.DOUBLE -> output.writeDouble(data.asDouble())
+            ItemTagType.STRING -> output.writeUTF(data.asString())
+            ItemTagType.BYTE_ARRAY -> {
+                val array = data.asByteArray()
+                output.writeInt(array.size)
+                output.write(array)
+            }
+            ItemTagType.INT_ARRAY -> {
+                val array = data.asIntArray()
+                output.writeInt(array.size)
+                array.forEach { output.writeInt(it) }
+            }
+            ItemTagType.LONG_ARRAY -> {
+                val array = data.asLongArray()
+                output.writeInt(array.size)
+                array.forEach { output.writeLong(it) }
+            }
+            ItemTagType.LIST -> {
+                val list = data.asList()
+                // 原版列表要求所有元素类型一致，空列表类型为 END
+                val elementType = list.firstOrNull()?.type ?: ItemTagType.END
+                if (list.any { it.type != elementType }) {
+                    error("Unsupported mixed type list: ${list.map { it.type }.distinct()}")
+                }
+                output.writeByte(elementType.id.toInt())
+                output.writeInt(list.size)
+                list.forEach { writeData(it, output, depth + 1) }
+            }
+            ItemTagType.COMPOUND -> {
+                data.asCompound().forEach { (key, value) ->
+                    if (value.type == ItemTagType.END) {
+                        error("Unsupported type: END ($key)")
+                    }
+                    output.writeByte(value.type.id.toInt())
+                    output.writeUTF(key)
+                    writeData(value, output, depth + 1)
+                }
+                output.writeByte(ItemTagType.END.id.toInt())
+            }
+            ItemTagType.END -> error("Unsupported type: END")
+        }
+    }
+
+    /**
+     * 读取指定类型的 [ItemTagData] 数据部分（不含类型与名称）
+     */
+    fun readData(type: ItemTagType, input: DataInput, depth: Int): ItemTagData {
+        if (depth > MAX_DEPTH) {
+            error("Tried to read NBT tag with too high complexity, depth > $MAX_DEPTH")
+        }
+        return when (type) {
+            ItemTagType.BYTE -> ItemTagData(input.readByte())
+            ItemTagType.SHORT -> ItemTagData(input.readShort())
+            ItemTagType.INT -> ItemTagData(input.readInt())
+            ItemTagType.LONG -> ItemTagData(input.readLong())
+            ItemTagType.FLOAT -> ItemTagData(input.readFloat())
+            ItemTagType.DOUBLE -> ItemTagData(input.readDouble())
+            ItemTagType.STRING -> ItemTagData(input.readUTF())
+            ItemTagType.BYTE_ARRAY -> ItemTagData(ByteArray(readLength(input)).also { input.readFully(it) })
+            ItemTagType.INT_ARRAY -> ItemTagData(IntArray(readLength(input)) { input.readInt() })
+            ItemTagType.LONG_ARRAY -> ItemTagData(LongArray(readLength(input)) { input.readLong() })
+            ItemTagType.LIST -> {
+                val elementType = typeOf(input.readByte())
+                val size = readLength(input)
+                if (elementType == ItemTagType.END && size > 0) {
+                    error("Missing type on list")
+                }
+                ItemTagList(List(size) { readData(elementType, input, depth + 1) })
+            }
+            ItemTagType.COMPOUND -> {
+                val compound = ItemTag.empty()
+                while (true) {
+                    val elementType = typeOf(input.readByte())
+                    if (elementType == ItemTagType.END) {
+                        break
+                    }
+                    val key = input.readUTF()
+                    compound[key] = readData(elementType, input, depth + 1)
+                }
+                compound
+            }
+            ItemTagType.END -> ItemTagData(ItemTagType.END, 0)
+        }
+    }
+
+    private fun readLength(input: DataInput): Int {
+        val length = input.readInt()
+        if (length < 0) {
+            error("Negative length: $length")
+        }
+        return length
+    }
+
+    private fun typeOf(id: Byte): ItemTagType {
+        return types.getOrNull(id.toInt()) ?: error("Unsupported type id: $id")
+    }
+
+    private val types = ItemTagType.values().sortedBy { it.id }.toTypedArray()
+
+    /**
+     * 忽略 close 的输出流，使压缩流结束时不关闭调用方的流
+     */
+    private class NonClosingOutputStream(stream: OutputStream) : FilterOutputStream(stream) {
+
+        override fun write(b: ByteArray, off: Int, len: Int) {
+            out.write(b, off, len)
+        }
+
+        override fun close() {
+            flush()
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package taboolib.module.nms
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * TabooLib
+ * taboolib.module.nms.ItemTagView
+ *
+ * 基于 NMS NBTTagCompound 的惰性 [ItemTag] 视图。
+ *
+ * 读取（[get]、[containsKey]、[size]、[isEmpty]）直接作用于原始 NBTTagCompound，
+ * 仅转换被访问的节点，嵌套的复合类型同样以视图形式返回，因此 getDeep("a.b.c") 只会转换 c 对应的值。
+ *
+ * 写入或遍历时才会展开当前层级（写时复制，不会修改原始 NBTTagCompound），
+ * 修改后需通过 [saveTo] 写回物品。未被修改的视图（见 [isPristine]）在写回时直接复制原始 NBTTagCompound。
+ *
+ * @param handle 原始 NBTTagCompound，视图不会对其进行任何修改
+ * @author agent
+ * @since 2026/10/19 12:16
+ */
+class ItemTagView(val handle: Any) : ItemTag() {
+
+    /** 已访问的子节点，保证多次读取返回同一对象 */
+    private val children = ConcurrentHashMap<String, ItemTagData>()
+
+    /** 当前层级是否已展开 */
+    @Volatile
+    var isMaterialized = false
+        private set
+
+    /**
+     * 视图是否未被修改过，此时可直接复制原始 NBTTagCompound 写回
+     * 已取出的列表与数组可能已被外部修改，因此不视为未修改
+     */
+    val isPristine: Boolean
+        get() = !isMaterialized && children.values.all {
+            when (it.type) {
+                ItemTagType.COMPOUND -> it is ItemTagView && it.isPristine
+                ItemTagType.LIST, ItemTagType.BYTE_ARRAY, ItemTagType.INT_ARRAY, ItemTagType.LONG_ARRAY -> false
+                else -> true
+            }
+        }
+
+    override fun container(): MutableMap<String, ItemTagData> {
+        if (!isMaterialized) {
+            materialize()
+        }
+        return super.container()
+    }
+
+    override fun get(key: String): ItemTagData? {
+        if (isMaterialized) {
+            return super.get(key)
+        }
+        children[key]?.let { return it }
+        val nbtTag = NMSItemTag.instance.compoundGet(handle, key) ?: return null
+        return children.computeIfAbsent(key) { NMSItemTag.instance.itemTagToBukkitView(nbtTag) }
+    }
+
+    override fun containsKey(key: String): Boolean {
+        return if (isMaterialized) super.containsKey(key) else NMSItemTag.instance.compoundGet(handle, key) != null
+    }
+
+    override val size: Int
+        get() = if (isMaterialized) super.size else NMSItemTag.instance.compoundKeys(handle).size
+
+    override fun isEmpty(): Boolean {
+        return if (isMaterialized) super.isEmpty() else NMSItemTag.instance.compoundKeys(handle).isEmpty()
+    }
+
+    /**
+     * 展开当前层级，子节点中的复合类型仍保持为视图
+     */
+    @Synchronized
+    private fun materialize() {
+        if (isMaterialized) {
+            return
+        }
+        val nms = NMSItemTag.instance
+        val container = super.container()
+        nms.compoundKeys(handle).forEach { key ->
+            val nbtTag = nms.compoundGet(handle, key) ?: return@forEach
+            container[key] = children.computeIfAbsent(key) { nms.itemTagToBukkitView(nbtTag) }
+        }
+        isMaterialized = true
+    }
+}
@@ -8,6 +8,9 @@ import taboolib.common.util.unsafeLazy
 /**
  * 获取物品 [ItemTag]
  *
+ * 返回值可能为 [ItemTagView]（1.20.5+ 仅在 onlyCustom 为 true 时），仅在读取时转换被访问的节点，
+ * 修改后仍需通过 [ItemTag.saveTo] 写回物品。
+ *
  * @param onlyCustom 是否仅包含自定义数据（详见 1.20.5+ NBT 改动，在 1.20.4 及以下版本此参数无效）
  */
 fun ItemStack.getItemTag(onlyCustom: Boolean = true): ItemTag {
@@ -72,6 +75,25 @@ abstract class NMSItemTag {
     /** 将 [net.minecraft.server] 下的 NBTTag 转换为 [ItemTagData] */
     abstract fun itemTagToBukkitCopy(nbtTag: Any): ItemTagData
 
+    /**
+     * 将 [net.minecraft.server] 下的 NBTTag 转换为 [ItemTagData]
+     * 与 [itemTagToBukkitCopy] 不同，复合类型将以 [ItemTagView] 的形式返回而不进行转换
+     */
+    open fun itemTagToBukkitView(nbtTag: Any): ItemTagData {
+        return itemTagToBukkitCopy(nbtTag)
+    }
+
+    /** 获取 NBTTagCompound 的所有键，供 [ItemTagView] 使用 */
+    abstract fun compoundKeys(nbtTag: Any): Set<String>
+
+    /** 获取 NBTTagCompound 中指定键的原始 NBTTag，供 [ItemTagView] 使用 */
+    abstract fun compoundGet(nbtTag: Any, key: String): Any?
+
+    /** 复制 NBTTagCompound，不支持时返回 null，此时 [ItemTagView] 将逐个转换节点 */
+    open fun compoundCopy(nbtTag: Any): Any? {
+        return null
+    }
+
     /**
      * 将物品转换为原版 Json 形式，可插入 Tellraw 信息中。
      * 和 ItemTag#toJson 不同，不含类型信息。
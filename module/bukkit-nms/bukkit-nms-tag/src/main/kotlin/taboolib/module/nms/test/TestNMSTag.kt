@@ -5,6 +5,7 @@ import org.bukkit.inventory.ItemStack
 import org.bukkit.inventory.meta.ItemMeta
 import taboolib.common.Test
 import taboolib.module.nms.ItemTag
+import taboolib.module.nms.ItemTagList
 import taboolib.module.nms.getItemTag
 import taboolib.module.nms.setItemTag
 import taboolib.platform.util.modifyMeta
@@ -23,6 +24,42 @@ object TestNMSTag : Test() {
         var itemTag: ItemTag? = null
         result += sandbox("NMS:getItemTag") { itemTag = item().getItemTag() }
         result += sandbox("NMS:setItemTag") { item().setItemTag(itemTag ?: ItemTag.empty()) }
+        // 测试惰性视图
+        result += sandbox("NMS:ItemTagView") {
+            val item = item()
+            ItemTag().apply { putDeep("a.b.c", 1) }.saveTo(item)
+            val view = item.getItemTag()
+            check(view.getDeep("a.b.c")?.asInt() == 1)
+            view.putDeep("a.b.d", "2")
+            view.saveTo(item)
+            check(item.getItemTag().getDeep("a.b.d")?.asString() == "2")
+        }
+        // 测试二进制编码
+        result += sandbox("NMS:ItemTagCodec") {
+            val tag = ItemTag().apply {
+                putDeep("a.b.c", 1)
+                put("list", ItemTagList.of("1", "2"))
+                put("array", intArrayOf(1, 2, 3))
+            }
+            check(ItemTag.fromBytes(tag.toBytes()).toJson() == tag.toJson())
+            check(ItemTag.fromBytes(tag.toBytes(compressed = false)).toJson() == tag.toJson())
+        }
+        // 对比二进制编码与 JSON
+        val tag = ItemTag().apply {
+            repeat(16) { putDeep("data.entry$it.value", "value-$it") }
+            put("list", ItemTagList.of(*Array(32) { "$it" }))
+            put("array", IntArray(64) { it })
+        }
+        val bytes = tag.toBytes(compressed = false)
+        val json = tag.toJson()
+        result += benchmark("NMS:ItemTagCodec encode", 10000, mapOf(
+            "binary" to Runnable { tag.toBytes(compressed = false) },
+            "json" to Runnable { tag.toJson() },
+        ))
+        result += benchmark("NMS:ItemTagCodec decode", 10000, mapOf(
+            "binary" to Runnable { ItemTag.fromBytes(bytes) },
+            "json" to Runnable { ItemTag.fromJson(json) },
+        ))
         return result
     }
 
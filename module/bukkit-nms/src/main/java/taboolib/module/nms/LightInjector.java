@@ -23,6 +23,7 @@
 package taboolib.module.nms;
 
 import com.mojang.authlib.GameProfile;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.*;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -354,7 +355,14 @@ public abstract class LightInjector implements Closeable {
 
                     // Run on event loop to avoid a possible data race with injection in injectPlayer()
                     // 在事件循环中运行，以避免在 injectPlayer() 中注入时可能发生的数据竞争
-                    channel.eventLoop().submit(() -> channel.pipeline().remove(identifier));
+                    channel.eventLoop().submit(() -> {
+                        ChannelPipeline pipeline = channel.pipeline();
+                        pipeline.remove(identifier);
+                        // Remove the byte counters installed by packet statistics
+                        // 移除数据包统计所安装的字节计数器
+                        if (pipeline.get(identifier + "_statistics_out") != null) pipeline.remove(identifier + "_statistics_out");
+                        if (pipeline.get(identifier + "_statistics_in") != null) pipeline.remove(identifier + "_statistics_in");
+                    });
                 } catch (Exception exception) {
                     plugin.getLogger().log(Level.SEVERE, "[LightInjector] An error occurred while uninjecting a player:", exception);
                 }
@@ -573,6 +581,12 @@ public abstract class LightInjector implements Closeable {
 
         private volatile Player player;
 
+        // Statistics state, only touched from the event loop
+        // 统计状态，仅在事件循环中访问
+        private boolean byteCountersInstalled;
+        private String lastSendType;
+        private long pendingReceiveBytes;
+
         @Override
         public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
             // Called during player disconnection
@@ -599,6 +613,14 @@ public abstract class LightInjector implements Closeable {
                     plugin.getLogger().log(Level.SEVERE, "[LightInjector] An error occurred while handling PacketLoginOutSuccess:", exception);
                 }
             }
+            // Packet statistics, only one boolean check when disabled
+            // 数据包统计，关闭时仅多出一次布尔判断
+            boolean statistics = PacketStatistics.INSTANCE.isEnabled();
+            long start = 0;
+            if (statistics) {
+                installByteCounters(ctx);
+                start = System.nanoTime();
+            }
             @Nullable Object newPacket;
             try {
                 newPacket = onPacketSendAsync(player, ctx.channel(), packet);
@@ -610,12 +632,22 @@ public abstract class LightInjector implements Closeable {
                 super.write(ctx, packet, promise);
                 return;
             }
+            if (statistics) {
+                PacketStatistics.INSTANCE.recordSend(player, packet, System.nanoTime() - start);
+                lastSendType = newPacket != null ? newPacket.getClass().getName() : null;
+            }
             if (newPacket != null)
                 super.write(ctx, newPacket, promise);
         }
 
         @Override
         public void channelRead(ChannelHandlerContext ctx, Object packet) throws Exception {
+            boolean statistics = PacketStatistics.INSTANCE.isEnabled();
+            long start = 0;
+            if (statistics) {
+                installByteCounters(ctx);
+                start = System.nanoTime();
+            }
             @Nullable Object newPacket;
             try {
                 newPacket = onPacketReceiveAsync(player, ctx.channel(), packet);
@@ -627,9 +659,66 @@ public abstract class LightInjector implements Closeable {
                 super.channelRead(ctx, packet);
                 return;
             }
+            if (statistics) {
+                PacketStatistics.INSTANCE.recordReceive(player, packet, pendingReceiveBytes, System.nanoTime() - start);
+                pendingReceiveBytes = 0;
+            }
             if (newPacket != null)
                 super.channelRead(ctx, newPacket);
         }
+
+        /**
+         * Installs the byte counters lazily, so that nothing is added to the pipeline until statistics are enabled.
+         * Must be called from the event loop.
+         * 延迟安装字节计数器，在启用统计之前不会向管道中添加任何处理器。必须在事件循环中调用。
+         */
+        private void installByteCounters(ChannelHandlerContext ctx) {
+            if (byteCountersInstalled) return;
+            byteCountersInstalled = true;
+            ChannelPipeline pipeline = ctx.pipeline();
+            // Outbound buffers right after "encoder" are encoded but not yet compressed
+            // 位于 "encoder" 之后的出站缓冲区已编码但尚未压缩
+            if (pipeline.get("encoder") != null) {
+                pipeline.addBefore("encoder", identifier + "_statistics_out", new ByteCounter(this, true));
+            }
+            // Inbound buffers right before "decoder" are decompressed but not yet decoded
+            // 位于 "decoder" 之前的入站缓冲区已解压但尚未解码
+            if (pipeline.get("decoder") != null) {
+                pipeline.addBefore("decoder", identifier + "_statistics_in", new ByteCounter(this, false));
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes of encoded packets and attributes them to the packet seen by the {@link PacketHandler}.
+     * Since the whole pipeline runs on the channel's event loop, no synchronization is needed.
+     * 统计编码后数据包的字节数，并归属于 {@link PacketHandler} 所处理的数据包。整个管道均运行在通道的事件循环中，因此无需同步。
+     */
+    private static final class ByteCounter extends ChannelDuplexHandler {
+
+        private final PacketHandler handler;
+        private final boolean outbound;
+
+        private ByteCounter(PacketHandler handler, boolean outbound) {
+            this.handler = handler;
+            this.outbound = outbound;
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            if (outbound && msg instanceof ByteBuf && handler.lastSendType != null && PacketStatistics.INSTANCE.isEnabled()) {
+                PacketStatistics.INSTANCE.recordSendBytes(handler.player, handler.lastSendType, ((ByteBuf) msg).readableBytes());
+            }
+            super.write(ctx, msg, promise);
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            if (!outbound && msg instanceof ByteBuf && PacketStatistics.INSTANCE.isEnabled()) {
+                handler.pendingReceiveBytes += ((ByteBuf) msg).readableBytes();
+            }
+            super.channelRead(ctx, msg);
+        }
     }
 
     // ====================================== Reflection stuff ======================================
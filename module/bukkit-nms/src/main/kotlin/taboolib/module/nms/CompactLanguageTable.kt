@@ -0,0 +1,146 @@
+package taboolib.module.nms
+
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+import java.io.*
+import java.nio.file.AtomicMoveNotSupportedException
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.util.*
+
+/**
+ * TabooLib
+ * taboolib.module.nms.CompactLanguageTable
+ *
+ * 紧凑的语言文件字符串表。
+ *
+ * 键按字典序排列并经过 [String.intern] 处理，因此不同语言之间共享同一份键字符串；
+ * 值以 UTF-8 形式紧密排列在一个字节数组中，仅在读取时解码。
+ * 相比解析后的 JsonObject，内存占用约为原先的几分之一。
+ *
+ * @param keys 排序后的键
+ * @param offsets 每个值在 [bytes] 中的起始位置，长度为 keys.size + 1
+ * @param bytes UTF-8 编码的所有值
+ * @author agent
+ * @since 2026/10/19 12:21
+ */
+class CompactLanguageTable(val keys: Array<String>, val offsets: IntArray, val bytes: ByteArray) {
+
+    /** 条目数量 */
+    val size: Int
+        get() = keys.size
+
+    /**
+     * 获取值
+     */
+    operator fun get(key: String): String? {
+        val index = Arrays.binarySearch(keys, key)
+        if (index < 0) {
+            return null
+        }
+        return String(bytes, offsets[index], offsets[index + 1] - offsets[index], Charsets.UTF_8)
+    }
+
+    /**
+     * 写入缓存文件
+     * 先写入同目录下的临时文件再替换，其他进程不会读到写入一半的缓存
+     */
+    fun writeTo(file: File) {
+        val temp = File.createTempFile(file.name, ".tmp", file.absoluteFile.parentFile)
+        try {
+            DataOutputStream(BufferedOutputStream(FileOutputStream(temp))).use { output ->
+                output.writeInt(MAGIC)
+                output.writeInt(keys.size)
+                keys.forEach { output.writeUTF(it) }
+                offsets.forEach { output.writeInt(it) }
+                output.write(bytes)
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+            } catch (_: AtomicMoveNotSupportedException) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING)
+            }
+        } finally {
+            temp.delete()
+        }
+    }
+
+    companion object {
+
+        /** 缓存文件标识，随格式变更而变更 */
+        private const val MAGIC = 0x544C4E01
+
+        /**
+         * 从原始语言文件编译
+         *
+         * @param file 原始语言文件
+         * @param json 是否为 Json 格式（1.13+），否则为 properties 格式
+         */
+        fun compile(file: File, json: Boolean): CompactLanguageTable {
+            val map = TreeMap<String, String>()
+            if (json) {
+                // 流式读取，不构建 JsonObject
+                JsonReader(file.reader(Charsets.UTF_8).buffered()).use { reader ->
+                    reader.beginObject()
+                    while (reader.hasNext()) {
+                        val key = reader.nextName()
+                        if (reader.peek() == JsonToken.STRING) {
+                            map[key] = reader.nextString()
+                        } else {
+                            reader.skipValue()
+                        }
+                    }
+                    reader.endObject()
+                }
+            } else {
+                val properties = Properties()
+                file.reader(Charsets.UTF_8).use { properties.load(it) }
+                properties.stringPropertyNames().forEach { map[it] = properties.getProperty(it) }
+            }
+            return of(map)
+        }
+
+        /**
+         * 从已排序的映射创建
+         */
+        fun of(map: SortedMap<String, String>): CompactLanguageTable {
+            val keys = arrayOfNulls<String>(map.size)
+            val offsets = IntArray(map.size + 1)
+            val bytes = ByteArrayOutputStream()
+            var index = 0
+            map.forEach { (key, value) ->
+                keys[index] = key.intern()
+                offsets[index] = bytes.size()
+                bytes.write(value.toByteArray(Charsets.UTF_8))
+                index++
+            }
+            offsets[index] = bytes.size()
+            @Suppress("UNCHECKED_CAST")
+            return CompactLanguageTable(keys as Array<String>, offsets, bytes.toByteArray())
+        }
+
+        /**
+         * 读取缓存文件，文件无效时返回 null
+         */
+        fun readFrom(file: File): CompactLanguageTable? {
+            if (!file.exists() || file.length() == 0L) {
+                return null
+            }
+            return try {
+                DataInputStream(BufferedInputStream(FileInputStream(file))).use { input ->
+                    if (input.readInt() != MAGIC) {
+                        return null
+                    }
+                    val size = input.readInt()
+                    val keys = Array(size) { input.readUTF().intern() }
+                    val offsets = IntArray(size + 1) { input.readInt() }
+                    val bytes = ByteArray(offsets[size])
+                    input.readFully(bytes)
+                    CompactLanguageTable(keys, offsets, bytes)
+                }
+            } catch (_: IOException) {
+                null
+            }
+        }
+    }
+}
@@ -26,6 +26,9 @@ object Exchanges {
     // Minecraft 语言文件缓存
     const val MINECRAFT_LANGUAGE = "minecraft_language"
 
+    // Minecraft 语言文件缓存（紧凑字符串表）
+    const val MINECRAFT_LANGUAGE_COMPACT = "minecraft_language/compact"
+
     // Spigot 映射表
     const val MAPPING_SPIGOT = "mapping_spigot"
 
@@ -14,11 +14,11 @@ import taboolib.common.platform.Platform
 import taboolib.common.platform.PlatformSide
 import taboolib.common.platform.function.info
 import taboolib.common.platform.function.warning
-import taboolib.common.util.MatrixList
 import taboolib.common.util.t
 import java.io.File
 import java.net.URL
 import java.util.*
+import java.util.concurrent.ConcurrentHashMap
 
 /**
  * 获取玩家对应的语言文件
@@ -41,6 +41,7 @@ fun Player.getMinecraftLanguageFile(): MinecraftLanguage.LanguageFile? {
  */
 @Inject
 @PlatformSide(Platform.BUKKIT)
+@Suppress("UNCHECKED_CAST")
 object MinecraftLanguage {
 
     /**
@@ -83,6 +84,32 @@ object MinecraftLanguage {
                 return container[path]?.asString
             }
         }
+
+        /**
+         * 紧凑格式，由 [FormatProperties] 或 [FormatJson] 编译而来
+         */
+        class FormatCompact(override val sourceFile: File, override val container: CompactLanguageTable) : LanguageFile {
+
+            override operator fun get(path: String): String? {
+                return container[path]
+            }
+        }
+
+        /**
+         * 首次读取时加载为 [FormatCompact]
+         */
+        class FormatLazy(val locale: String, override val sourceFile: File) : LanguageFile {
+
+            /** 加载后的语言文件 */
+            val file by lazy { loadFile(locale, sourceFile) }
+
+            override val container: CompactLanguageTable
+                get() = file.container
+
+            override operator fun get(path: String): String? {
+                return file[path]
+            }
+        }
     }
 
     /**
@@ -117,9 +144,12 @@ object MinecraftLanguage {
     /** 支持的语言文件 */
     val supportedLanguage = arrayListOf("zh_cn", "zh_tw", "en_gb")
 
-    /** 语言文件 */
+    /** 语言文件，内容在首次读取时加载（参考 [LanguageFile.FormatLazy]） */
     val files = hashMapOf<String, LanguageFile>()
 
+    /** 所有插件共享的紧凑字符串表（locale -> [File, keys, offsets, bytes]），仅使用 JDK 类型 */
+    private val sharedTables = Exchanges.getOrPut(Exchanges.MINECRAFT_LANGUAGE_COMPACT) { ConcurrentHashMap<String, Array<Any>>() }
+
     /**
      * 获取语言文件
      */
@@ -136,12 +166,8 @@ object MinecraftLanguage {
 
     @Awake(LifeCycle.INIT)
     private fun init() {
-        // 访问内存中的共享文件
-        if (loadFilesFromExchange()) {
-            return
-        }
-        // 检查本地文件是否有效
-        if (!checkFiles()) {
+        // 其他插件已检查过语言文件
+        if (Exchanges.MINECRAFT_LANGUAGE !in Exchanges && !checkFiles()) {
             info(
                 """
                     正在下载 Minecraft 语言文件 ...
@@ -150,28 +176,64 @@ object MinecraftLanguage {
             )
             downloadFiles()
         }
-        // 加载本地文件
-        loadFiles()
+        // 登记语言文件，内容在首次读取时加载
+        files += getFiles().mapValues { (locale, file) -> LanguageFile.FormatLazy(locale, file) }
         saveExchanges()
     }
 
-    /** 从 Exchanges 空间中获取语言文件，跳过 I/O 过程 */
-    private fun loadFilesFromExchange(): Boolean {
-        if (Exchanges.MINECRAFT_LANGUAGE in Exchanges) {
-            val map = Exchanges.get<MatrixList<Any>>(Exchanges.MINECRAFT_LANGUAGE)
-            if (MinecraftVersion.isHigher(MinecraftVersion.V1_12)) {
-                map.forEach { files[it[0] as String] = LanguageFile.FormatJson(it[1] as File, it[2] as JsonObject) }
-            } else {
-                map.forEach { files[it[0] as String] = LanguageFile.FormatProperties(it[1] as File, it[2] as Properties) }
+    /**
+     * 将语言文件写入到 Exchanges 空间，供旧版本的插件读取
+     * 格式为 (locale, File, JsonObject/Properties) 的列表，容器在被读取时才会解析
+     */
+    private fun saveExchanges() {
+        if (Exchanges.MINECRAFT_LANGUAGE !in Exchanges) {
+            Exchanges[Exchanges.MINECRAFT_LANGUAGE] = files.map { (locale, file) -> LegacyEntry(locale, file.sourceFile) }
+        }
+    }
+
+    /**
+     * 旧格式的语言文件条目
+     */
+    private class LegacyEntry(val locale: String, val file: File) : kotlin.collections.AbstractList<Any>() {
+
+        val container by lazy {
+            if (MinecraftVersion.isHigher(MinecraftVersion.V1_12)) LanguageFile.FormatJson(file).container else LanguageFile.FormatProperties(file).container
+        }
+
+        override val size: Int
+            get() = 3
+
+        override fun get(index: Int): Any {
+            return when (index) {
+                0 -> locale
+                1 -> file
+                2 -> container
+                else -> throw IndexOutOfBoundsException("Index: $index, Size: 3")
             }
-            return true
         }
-        return false
     }
 
-    /** 将已加载的语言文件写入到 Exchange 空间 */
-    private fun saveExchanges() {
-        Exchanges[Exchanges.MINECRAFT_LANGUAGE] = files.map { (k, v) -> listOf(k, v.sourceFile, v.container) }
+    /**
+     * 加载语言文件
+     * 依次尝试：Exchanges 空间中的共享字符串表 -> 本地缓存文件 -> 编译原始文件并写入缓存
+     */
+    private fun loadFile(locale: String, file: File): LanguageFile.FormatCompact {
+        val shared = sharedTables[locale]
+        if (shared != null) {
+            return LanguageFile.FormatCompact(shared[0] as File, CompactLanguageTable(shared[1] as Array<String>, shared[2] as IntArray, shared[3] as ByteArray))
+        }
+        val cacheFile = File(file.path + ".compact")
+        var table = if (cacheFile.lastModified() >= file.lastModified()) CompactLanguageTable.readFrom(cacheFile) else null
+        if (table == null) {
+            table = CompactLanguageTable.compile(file, MinecraftVersion.isHigher(MinecraftVersion.V1_12))
+            try {
+                table.writeTo(cacheFile)
+            } catch (ex: Throwable) {
+                warning("Failed to write language cache: ${cacheFile.path} (${ex.message})")
+            }
+        }
+        sharedTables.putIfAbsent(locale, arrayOf(file, table.keys, table.offsets, table.bytes))
+        return LanguageFile.FormatCompact(file, table)
     }
 
     /** 检查语言文件 */
@@ -233,11 +295,6 @@ object MinecraftLanguage {
         // endregion
     }
 
-    /** 加载语言文件 */
-    private fun loadFiles() {
-        files += getFiles().mapValues { (_, v) -> if (MinecraftVersion.isHigher(MinecraftVersion.V1_12)) LanguageFile.FormatJson(v) else LanguageFile.FormatProperties(v) }
-    }
-
     private fun readJson(url: String): JsonObject {
         return JsonParser().parse(URL(url).readText()).asJsonObject
     }
@@ -0,0 +1,231 @@
+package taboolib.module.nms
+
+import org.bukkit.Bukkit
+import org.bukkit.entity.Player
+import org.bukkit.event.player.PlayerQuitEvent
+import taboolib.common.Inject
+import taboolib.common.io.newFile
+import taboolib.common.platform.Platform
+import taboolib.common.platform.PlatformSide
+import taboolib.common.platform.event.SubscribeEvent
+import taboolib.common.platform.function.getDataFolder
+import taboolib.common.platform.function.submit
+import java.io.File
+import java.text.SimpleDateFormat
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * TabooLib
+ * taboolib.module.nms.PacketStatistics
+ *
+ * 数据包流量统计，按数据包类型与玩家分别记录数量、编码后字节数与监听器耗时。
+ * 默认关闭，关闭时注入器仅多出一次布尔判断。
+ *
+ * 所有 TabooLib 插件只会注入一个数据包监听器，因此统计数据借助 [Exchanges] 存放于 JDK 类型中，
+ * 任意插件均可开启、查询或导出，不受注入者是谁的影响。
+ *
+ * @author agent
+ * @since 2026/10/19 12:14
+ */
+@Inject
+@PlatformSide(Platform.BUKKIT)
+object PacketStatistics {
+
+    // 统计开关
+    const val STATISTICS_ENABLED = "packet_statistics/enabled"
+
+    // 按数据包类型统计
+    const val STATISTICS_TYPE = "packet_statistics/type"
+
+    // 按玩家统计
+    const val STATISTICS_PLAYER = "packet_statistics/player"
+
+    private const val SEND_COUNT = 0
+    private const val SEND_BYTES = 1
+    private const val SEND_NANOS = 2
+    private const val RECEIVE_COUNT = 3
+    private const val RECEIVE_BYTES = 4
+    private const val RECEIVE_NANOS = 5
+
+    private val enabled = Exchanges.getOrPut(STATISTICS_ENABLED) { AtomicBoolean(false) }
+    private val byType = Exchanges.getOrPut(STATISTICS_TYPE) { ConcurrentHashMap<String, Array<LongAdder>>() }
+    private val byPlayer = Exchanges.getOrPut(STATISTICS_PLAYER) { ConcurrentHashMap<String, Array<LongAdder>>() }
+
+    /**
+     * 统计快照
+     *
+     * @param sendCount 发送数量
+     * @param sendBytes 发送字节数（编码后，压缩前）
+     * @param sendNanos 发送监听器耗时（纳秒）
+     * @param receiveCount 接收数量
+     * @param receiveBytes 接收字节数（解压后，解码前）
+     * @param receiveNanos 接收监听器耗时（纳秒）
+     */
+    data class Record(
+        val sendCount: Long,
+        val sendBytes: Long,
+        val sendNanos: Long,
+        val receiveCount: Long,
+        val receiveBytes: Long,
+        val receiveNanos: Long,
+    ) {
+
+        /** 总数量 */
+        val totalCount: Long
+            get() = sendCount + receiveCount
+
+        /** 总字节数 */
+        val totalBytes: Long
+            get() = sendBytes + receiveBytes
+
+        /** 监听器总耗时（纳秒）*/
+        val totalNanos: Long
+            get() = sendNanos + receiveNanos
+    }
+
+    /**
+     * 是否启用统计
+     */
+    val isEnabled: Boolean
+        get() = enabled.get()
+
+    /**
+     * 启用统计
+     */
+    fun enable() {
+        enabled.set(true)
+    }
+
+    /**
+     * 关闭统计，已有数据会保留
+     */
+    fun disable() {
+        enabled.set(false)
+    }
+
+    /**
+     * 清空统计数据
+     */
+    fun reset() {
+        byType.clear()
+        byPlayer.clear()
+    }
+
+    /**
+     * 获取所有数据包类型的统计快照，键为数据包完整类名
+     */
+    fun getTypes(): Map<String, Record> {
+        return byType.mapValues { it.value.toRecord() }
+    }
+
+    /**
+     * 获取所有玩家的统计快照，键为玩家名
+     */
+    fun getPlayers(): Map<String, Record> {
+        return byPlayer.mapValues { it.value.toRecord() }
+    }
+
+    /**
+     * 获取某个数据包类型的统计快照
+     */
+    fun getType(type: String): Record? {
+        return byType[type]?.toRecord()
+    }
+
+    /**
+     * 获取某个玩家的统计快照
+     */
+    fun getPlayer(name: String): Record? {
+        return byPlayer[name]?.toRecord()
+    }
+
+    /**
+     * 移除某个玩家的统计数据
+     */
+    fun removePlayer(name: String) {
+        byPlayer.remove(name)
+    }
+
+    /**
+     * 将统计数据导出为 CSV 文件
+     *
+     * @param file 目标文件，默认为插件目录下 packet-statistics/yyyyMMdd-HHmmss.csv
+     * @return 导出的文件
+     */
+    fun dump(file: File = newFile(getDataFolder(), "packet-statistics/${SimpleDateFormat("yyyyMMdd-HHmmss").format(Date())}.csv")): File {
+        newFile(file).bufferedWriter().use { writer ->
+            writer.write("scope,key,send_count,send_bytes,send_nanos,receive_count,receive_bytes,receive_nanos")
+            writer.newLine()
+            fun write(scope: String, map: Map<String, Record>) {
+                map.entries.sortedByDescending { it.value.totalBytes }.forEach { (key, r) ->
+                    writer.write("$scope,$key,${r.sendCount},${r.sendBytes},${r.sendNanos},${r.receiveCount},${r.receiveBytes},${r.receiveNanos}")
+                    writer.newLine()
+                }
+            }
+            write("type", getTypes())
+            write("player", getPlayers())
+        }
+        return file
+    }
+
+    /**
+     * 记录一次发送，由注入器调用，请勿手动调用
+     */
+    fun recordSend(player: Player?, packet: Any, nanos: Long) {
+        record(player, packet.javaClass.name, SEND_COUNT, 1)
+        record(player, packet.javaClass.name, SEND_NANOS, nanos)
+    }
+
+    /**
+     * 记录一次发送的编码字节数，由注入器调用，请勿手动调用
+     */
+    fun recordSendBytes(player: Player?, type: String, bytes: Long) {
+        record(player, type, SEND_BYTES, bytes)
+    }
+
+    /**
+     * 记录一次接收，由注入器调用，请勿手动调用
+     */
+    fun recordReceive(player: Player?, packet: Any, bytes: Long, nanos: Long) {
+        record(player, packet.javaClass.name, RECEIVE_COUNT, 1)
+        record(player, packet.javaClass.name, RECEIVE_BYTES, bytes)
+        record(player, packet.javaClass.name, RECEIVE_NANOS, nanos)
+    }
+
+    private fun record(player: Player?, type: String, index: Int, value: Long) {
+        if (value == 0L) return
+        byType.computeIfAbsent(type) { newCounters() }[index].add(value)
+        if (player != null) {
+            byPlayer.computeIfAbsent(player.name) { newCounters() }[index].add(value)
+        }
+    }
+
+    @SubscribeEvent
+    private fun onQuit(e: PlayerQuitEvent) {
+        // 延迟移除，退出过程中仍会收发数据包，期间重新进入则保留
+        val name = e.player.name
+        submit(delay = 20) {
+            if (Bukkit.getPlayerExact(name) == null) {
+                removePlayer(name)
+            }
+        }
+    }
+
+    private fun newCounters(): Array<LongAdder> {
+        return Array(6) { LongAdder() }
+    }
+
+    private fun Array<LongAdder>.toRecord(): Record {
+        return Record(
+            this[SEND_COUNT].sum(),
+            this[SEND_BYTES].sum(),
+            this[SEND_NANOS].sum(),
+            this[RECEIVE_COUNT].sum(),
+            this[RECEIVE_BYTES].sum(),
+            this[RECEIVE_NANOS].sum(),
+        )
+    }
+}
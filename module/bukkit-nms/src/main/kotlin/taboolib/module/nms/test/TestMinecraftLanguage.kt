@@ -1,7 +1,11 @@
 package taboolib.module.nms.test
 
 import taboolib.common.Test
+import taboolib.module.nms.CompactLanguageTable
 import taboolib.module.nms.MinecraftLanguage
+import taboolib.module.nms.MinecraftLanguage.LanguageFile
+import taboolib.module.nms.MinecraftVersion
+import java.util.*
 
 /**
  * TabooLib
@@ -13,12 +17,67 @@ import taboolib.module.nms.MinecraftLanguage
 object TestMinecraftLanguage : Test() {
 
     override fun check(): List<Result> {
-        return listOf(
-            sandbox("NMS:MinecraftLanguage") {
-                val support = MinecraftLanguage.supportedLanguage
-                val size = MinecraftLanguage.files.size
-                if (size != support.size) error("$size (lose: ${MinecraftLanguage.supportedLanguage.filter { MinecraftLanguage.files[it] == null }})")
+        val result = arrayListOf<Result>()
+        result += sandbox("NMS:MinecraftLanguage") {
+            val support = MinecraftLanguage.supportedLanguage
+            val lose = support.filter { MinecraftLanguage.getLanguageFile(it) == null }
+            if (lose.isNotEmpty()) error("${support.size - lose.size} (lose: $lose)")
+        }
+        val sources = MinecraftLanguage.supportedLanguage.mapNotNull { MinecraftLanguage.getLanguageFile(it)?.sourceFile }
+        if (sources.isEmpty()) {
+            return result
+        }
+        // 旧版本的语言文件格式（1.13+ 为 JsonObject，更低的版本为 Properties）
+        val json = MinecraftVersion.isHigher(MinecraftVersion.V1_12)
+        val legacyName = if (json) "json" else "properties"
+        val legacy: () -> List<LanguageFile> = { sources.map { if (json) LanguageFile.FormatJson(it) else LanguageFile.FormatProperties(it) } }
+        val compact: () -> List<LanguageFile> = { sources.map { LanguageFile.FormatCompact(it, CompactLanguageTable.compile(it, json)) } }
+        // 加载所有语言文件后保留的内存
+        var legacyBytes = 0L
+        var compactBytes = 0L
+        val heap = sandbox("NMS:MinecraftLanguage retained heap") {
+            legacyBytes = retainedBytes(legacy)
+            compactBytes = retainedBytes(compact)
+            check(compactBytes < legacyBytes) { "$legacyName=${legacyBytes}B, compact=${compactBytes}B" }
+        }
+        result += if (heap is Success) Success.of("${heap.reason} ($legacyName=${formatMemory(legacyBytes)}, compact=${formatMemory(compactBytes)})") else heap
+        // 查找耗时，两者结果一致
+        val legacyFiles = legacy()
+        val compactFiles = compact()
+        val random = Random(0)
+        val keys = (compactFiles[0].container as CompactLanguageTable).keys.let { keys -> List(1000) { keys[random.nextInt(keys.size)] } + "missing.key" }
+        result += sandbox("NMS:MinecraftLanguage lookup") {
+            legacyFiles.indices.forEach { i ->
+                keys.forEach { key -> check(legacyFiles[i][key] == compactFiles[i][key]) { "${sources[i]}: $key" } }
             }
+        }
+        result += benchmark(
+            "NMS:MinecraftLanguage lookup ${keys.size} keys", 1000, mapOf(
+                legacyName to Runnable { keys.forEach { legacyFiles[0][it] } },
+                "compact" to Runnable { keys.forEach { compactFiles[0][it] } }
+            )
         )
+        return result
     }
-}
\ No newline at end of file
+
+    /** 创建并保留对象时增长的堆内存 */
+    private fun retainedBytes(create: () -> List<LanguageFile>): Long {
+        val before = usedMemory()
+        val retained = create()
+        val after = usedMemory()
+        // 在测量结束前保持引用
+        check(retained.isNotEmpty())
+        return after - before
+    }
+
+    /** 回收后已使用的堆内存 */
+    private fun usedMemory(): Long {
+        repeat(3) { System.gc() }
+        val runtime = Runtime.getRuntime()
+        return runtime.totalMemory() - runtime.freeMemory()
+    }
+
+    private fun formatMemory(bytes: Long): String {
+        return "%.2fMB".format(bytes / 1024.0 / 1024.0)
+    }
+}
@@ -0,0 +1,83 @@
+package taboolib.module.ui
+
+import java.util.*
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicLong
+import java.util.function.Predicate
+import java.util.function.UnaryOperator
+
+/**
+ * TabooLib
+ * taboolib.module.ui.ClickCallbackList
+ *
+ * 点击回调列表，缓存编译后的 [ClickDispatcher]。
+ *
+ * 列表的每次修改都会使版本号递增，获取分发表时只比较版本号，不再逐个比较回调，
+ * 因此点击时的开销与回调数量无关。
+ * 子列表（[subList]）为只读视图，无法通过它修改列表。
+ *
+ * @author agent
+ * @since 2026/10/19 13:08
+ */
+class ClickCallbackList : CopyOnWriteArrayList<(event: ClickEvent) -> Unit>() {
+
+    /** 编译后的分发表及编译时的版本号 */
+    private class Compiled(val version: Long, val dispatcher: ClickDispatcher)
+
+    /** 版本号，每次修改后递增 */
+    private val version = AtomicLong()
+
+    @Volatile
+    private var compiled: Compiled? = null
+
+    /**
+     * 获取点击回调分发表
+     * 列表在编译后发生变化时重新编译
+     */
+    val dispatcher: ClickDispatcher
+        get() {
+            val current = version.get()
+            compiled?.let { if (it.version == current) return it.dispatcher }
+            // 先读取版本号再编译，编译期间发生的修改会使这次的结果在下一次获取时失效
+            return ClickDispatcher(this).also { compiled = Compiled(current, it) }
+        }
+
+    /** 修改后递增版本号 */
+    private inline fun <T> modify(func: () -> T): T {
+        return func().also { version.incrementAndGet() }
+    }
+
+    override fun add(element: (event: ClickEvent) -> Unit): Boolean = modify { super.add(element) }
+
+    override fun add(index: Int, element: (event: ClickEvent) -> Unit) = modify { super.add(index, element) }
+
+    override fun set(index: Int, element: (event: ClickEvent) -> Unit): (event: ClickEvent) -> Unit = modify { super.set(index, element) }
+
+    override fun removeAt(index: Int): (event: ClickEvent) -> Unit = modify { super.removeAt(index) }
+
+    override fun remove(element: (event: ClickEvent) -> Unit): Boolean = modify { super.remove(element) }
+
+    override fun addIfAbsent(element: (event: ClickEvent) -> Unit): Boolean = modify { super.addIfAbsent(element) }
+
+    override fun addAllAbsent(elements: Collection<(event: ClickEvent) -> Unit>): Int = modify { super.addAllAbsent(elements) }
+
+    override fun addAll(elements: Collection<(event: ClickEvent) -> Unit>): Boolean = modify { super.addAll(elements) }
+
+    override fun addAll(index: Int, elements: Collection<(event: ClickEvent) -> Unit>): Boolean = modify { super.addAll(index, elements) }
+
+    override fun removeAll(elements: Collection<(event: ClickEvent) -> Unit>): Boolean = modify { super.removeAll(elements) }
+
+    override fun retainAll(elements: Collection<(event: ClickEvent) -> Unit>): Boolean = modify { super.retainAll(elements) }
+
+    override fun removeIf(filter: Predicate<in (event: ClickEvent) -> Unit>): Boolean = modify { super.removeIf(filter) }
+
+    override fun replaceAll(operator: UnaryOperator<(event: ClickEvent) -> Unit>) = modify { super.replaceAll(operator) }
+
+    override fun sort(c: Comparator<in (event: ClickEvent) -> Unit>?) = modify { super.sort(c) }
+
+    override fun clear() = modify { super.clear() }
+
+    override fun subList(fromIndex: Int, toIndex: Int): MutableList<(event: ClickEvent) -> Unit> {
+        return Collections.unmodifiableList(super.subList(fromIndex, toIndex))
+    }
+}
@@ -0,0 +1,131 @@
+package taboolib.module.ui
+
+/**
+ * TabooLib
+ * taboolib.module.ui.ClickDispatcher
+ *
+ * 按位置索引的点击事件分发表。
+ *
+ * 由 [ClickBinding] 表示的回调按照位置（rawSlot）或抽象字符建立索引，点击时只会执行与之相关的回调，
+ * 而非遍历全部回调逐个判断位置；其他通用回调则对所有点击生效。
+ * 所有回调仍按照注册顺序执行，与逐个遍历的行为一致。
+ *
+ * @param callbacks 按注册顺序排列的点击回调
+ * @author agent
+ * @since 2026/10/19 12:22
+ */
+class ClickDispatcher(callbacks: List<(event: ClickEvent) -> Unit>) {
+
+    /** 全部回调 */
+    private val callbacks = callbacks.toTypedArray()
+
+    /** 通用回调的序号 */
+    private val generic: IntArray
+
+    /** 位置 -> 回调序号 */
+    private val byRawSlot: Map<Int, IntArray>
+
+    /** 抽象字符 -> 回调序号 */
+    private val byChar: Map<Char, IntArray>
+
+    /** 编译时的回调数量 */
+    val size: Int
+        get() = callbacks.size
+
+    init {
+        val generic = ArrayList<Int>()
+        val byRawSlot = HashMap<Int, MutableList<Int>>()
+        val byChar = HashMap<Char, MutableList<Int>>()
+        this.callbacks.forEachIndexed { index, callback ->
+            when {
+                callback !is ClickBinding -> generic += index
+                callback.char != null -> byChar.computeIfAbsent(callback.char) { ArrayList() } += index
+                else -> byRawSlot.computeIfAbsent(callback.rawSlot) { ArrayList() } += index
+            }
+        }
+        this.generic = generic.toIntArray()
+        this.byRawSlot = byRawSlot.mapValues { it.value.toIntArray() }
+        this.byChar = byChar.mapValues { it.value.toIntArray() }
+    }
+
+    /**
+     * 获取在指定位置与抽象字符下会被执行的回调序号（按执行顺序）
+     *
+     * @param rawSlot 点击位置
+     * @param slot 点击位置对应的抽象字符
+     */
+    fun select(rawSlot: Int, slot: Char): IntArray {
+        val a = generic
+        val b = byRawSlot[rawSlot] ?: EMPTY
+        val c = byChar[slot] ?: EMPTY
+        if (b.isEmpty() && c.isEmpty()) {
+            return a
+        }
+        // 三路归并，保持注册顺序
+        val result = IntArray(a.size + b.size + c.size)
+        var i = 0
+        var j = 0
+        var k = 0
+        var n = 0
+        while (n < result.size) {
+            val x = if (i < a.size) a[i] else Int.MAX_VALUE
+            val y = if (j < b.size) b[j] else Int.MAX_VALUE
+            val z = if (k < c.size) c[k] else Int.MAX_VALUE
+            result[n++] = when {
+                x < y && x < z -> a[i++]
+                y < z -> b[j++]
+                else -> c[k++]
+            }
+        }
+        return result
+    }
+
+    /**
+     * 分发点击事件
+     */
+    fun dispatch(event: ClickEvent) {
+        select(event.rawSlot, event.slot).forEach { index ->
+            when (val callback = callbacks[index]) {
+                // 已通过索引匹配，无需再次判断位置
+                is ClickBinding -> callback.callback(event)
+                else -> callback(event)
+            }
+        }
+    }
+
+    companion object {
+
+        private val EMPTY = IntArray(0)
+    }
+}
+
+/**
+ * 绑定到特定位置或抽象字符的点击回调，可被 [ClickDispatcher] 索引
+ * 直接调用时仍会判断位置，因此可以像普通回调一样放入 clickCallback 中
+ *
+ * @param rawSlot 绑定的位置，当 [char] 不为空时无效
+ * @param char 绑定的抽象字符
+ * @param callback 位置匹配时执行的回调
+ */
+class ClickBinding(val rawSlot: Int, val char: Char?, val callback: (event: ClickEvent) -> Unit) : (ClickEvent) -> Unit {
+
+    /** 是否与点击位置匹配 */
+    fun isMatch(event: ClickEvent): Boolean {
+        return if (char != null) event.slot == char else event.rawSlot == rawSlot
+    }
+
+    override fun invoke(event: ClickEvent) {
+        if (isMatch(event)) {
+            callback(event)
+        }
+    }
+
+    companion object {
+
+        /** 绑定到位置 */
+        fun of(rawSlot: Int, callback: (event: ClickEvent) -> Unit) = ClickBinding(rawSlot, null, callback)
+
+        /** 绑定到抽象字符 */
+        fun of(char: Char, callback: (event: ClickEvent) -> Unit) = ClickBinding(-1, char, callback)
+    }
+}
@@ -43,6 +43,8 @@ internal object ClickListener {
         submit {
             builder.buildCallback(e.player as Player, e.inventory)
             builder.selfBuildCallback(e.player as Player, e.inventory)
+            // 播放动画
+            MenuAnimation.play(e.player as Player, e.inventory, builder, builder.animations)
         }
         // 异步构建回调
         submitAsync {
@@ -62,8 +64,7 @@ internal object ClickListener {
         // 处理事件
         try {
             val event = ClickEvent(e, ClickType.CLICK, builder.getSlot(e.rawSlot), builder)
-            builder.clickCallback.forEach { it(event) }
-            builder.selfClickCallback(event)
+            builder.dispatchClick(event)
         } catch (t: Throwable) {
             t.printStackTrace()
         }
@@ -103,8 +104,7 @@ internal object ClickListener {
     fun onDrag(e: InventoryDragEvent) {
         val menu = MenuHolder.fromInventory(e.inventory) as? ChestImpl ?: return
         val clickEvent = ClickEvent(e, ClickType.DRAG, ' ', menu)
-        menu.clickCallback.forEach { it.invoke(clickEvent) }
-        menu.selfClickCallback(clickEvent)
+        menu.dispatchClick(clickEvent)
     }
 
     @SubscribeEvent
@@ -0,0 +1,157 @@
+package taboolib.module.ui
+
+import org.bukkit.Material
+import org.bukkit.entity.Player
+import org.bukkit.event.inventory.InventoryCloseEvent
+import org.bukkit.event.player.PlayerQuitEvent
+import org.bukkit.inventory.Inventory
+import org.bukkit.inventory.ItemStack
+import taboolib.common.Inject
+import taboolib.common.LifeCycle
+import taboolib.common.platform.Awake
+import taboolib.common.platform.Platform
+import taboolib.common.platform.PlatformSide
+import taboolib.common.platform.event.SubscribeEvent
+import taboolib.common.platform.function.submit
+import taboolib.common.platform.service.PlatformExecutor
+import taboolib.module.ui.type.Chest
+import taboolib.module.ui.virtual.VirtualInventory
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * TabooLib
+ * taboolib.module.ui.MenuAnimation
+ *
+ * 菜单动画调度器。
+ *
+ * 所有已打开菜单的动画物品由同一个每 tick 执行的任务驱动，而非每个页面各自创建调度器。
+ * 同一 tick 内的物品变化合并写入：虚拟页面仅发送一次差异刷新，原版页面由服务端在 tick 末尾统一同步。
+ * 页面关闭或玩家退出后自动停止，没有动画时任务自动取消。
+ *
+ * @author agent
+ * @since 2026/10/19 12:26
+ */
+@Inject
+@PlatformSide(Platform.BUKKIT)
+object MenuAnimation {
+
+    /**
+     * 动画
+     *
+     * @param slot 位置，当 [char] 不为空时无效
+     * @param char 抽象字符
+     * @param period 每帧间隔（tick）
+     * @param frame 帧回调，返回 null 时清空该位置
+     */
+    class Entry(val slot: Int, val char: Char?, val period: Int, val frame: (player: Player, frame: Int) -> ItemStack?)
+
+    /**
+     * 正在播放的页面
+     */
+    class Session(val player: Player, val inventory: Inventory, val entries: List<Entry>, val slots: List<IntArray>) {
+
+        /** 已播放的 tick 数 */
+        var tick = 0
+    }
+
+    /** 正在播放的页面 */
+    private val sessions = ConcurrentHashMap<Inventory, Session>()
+
+    /** 动画任务 */
+    private var task: PlatformExecutor.PlatformTask? = null
+
+    /** 正在播放的页面数量 */
+    val size: Int
+        get() = sessions.size
+
+    /**
+     * 开始播放页面动画
+     */
+    fun play(player: Player, inventory: Inventory, menu: Chest, entries: List<Entry>) {
+        if (entries.isEmpty()) {
+            return
+        }
+        val slots = entries.map { if (it.char != null) menu.getSlots(it.char).toIntArray() else intArrayOf(it.slot) }
+        sessions[inventory] = Session(player, inventory, entries, slots)
+        startTask()
+    }
+
+    /**
+     * 停止播放页面动画
+     */
+    fun stop(inventory: Inventory) {
+        sessions.remove(inventory)
+    }
+
+    @Synchronized
+    private fun startTask() {
+        if (task != null) {
+            return
+        }
+        task = submit(period = 1) { tick() }
+    }
+
+    @Synchronized
+    private fun stopTask() {
+        if (sessions.isEmpty()) {
+            task?.cancel()
+            task = null
+        }
+    }
+
+    private fun tick() {
+        val iterator = sessions.values.iterator()
+        while (iterator.hasNext()) {
+            val session = iterator.next()
+            // 页面已关闭
+            if (!session.player.isOnline || session.inventory.viewers.none { it == session.player }) {
+                iterator.remove()
+                continue
+            }
+            try {
+                advance(session)
+            } catch (ex: Throwable) {
+                iterator.remove()
+                ex.printStackTrace()
+            }
+        }
+        if (sessions.isEmpty()) {
+            stopTask()
+        }
+    }
+
+    private fun advance(session: Session) {
+        val tick = session.tick++
+        val inventory = session.inventory
+        val target = if (inventory is VirtualInventory) inventory.bukkitInventory else inventory
+        var changed = false
+        session.entries.forEachIndexed { index, entry ->
+            if (tick % entry.period != 0) {
+                return@forEachIndexed
+            }
+            val item = entry.frame(session.player, tick / entry.period)
+            session.slots[index].forEach { target.setItem(it, item) }
+            changed = true
+        }
+        // 虚拟页面合并为一次差异刷新
+        if (changed && inventory is VirtualInventory) {
+            inventory.remoteInventory?.refresh(target.contents.map { it ?: ItemStack(Material.AIR) }, inventory.storageContents)
+        }
+    }
+
+    @SubscribeEvent
+    private fun onClose(e: InventoryCloseEvent) {
+        stop(e.inventory)
+    }
+
+    @SubscribeEvent
+    private fun onQuit(e: PlayerQuitEvent) {
+        sessions.values.removeIf { it.player == e.player }
+    }
+
+    @Awake(LifeCycle.DISABLE)
+    private fun onDisable() {
+        sessions.clear()
+        stopTask()
+    }
+}
@@ -0,0 +1,114 @@
+package taboolib.module.ui
+
+import org.bukkit.entity.HumanEntity
+import org.bukkit.inventory.Inventory
+import org.bukkit.inventory.ItemStack
+import taboolib.module.ui.type.Chest
+import taboolib.module.ui.type.impl.ChestImpl
+import taboolib.module.ui.type.impl.TemplateChestImpl
+
+/**
+ * TabooLib
+ * taboolib.module.ui.MenuTemplate
+ *
+ * 预渲染的菜单模板。
+ *
+ * 模板在创建时执行一次构建函数，解析布局并生成所有通过 set(Char, ...) 设置的物品，随后由所有玩家共享。
+ * 打开菜单时不再重复解析布局与生成物品，而是直接复制预渲染的页面内容，
+ * 再将每个玩家独有的内容（如变量、描述）作为覆盖层写入特定位置。
+ *
+ * 模板本身不可变：覆盖层中调用 set(Char, ...) 只会影响当前玩家的页面，
+ * 通过 onBuild 注册的回调仍会在每次打开时执行。
+ *
+ * 模板仅支持普通的 [Chest] 页面，翻页、存储等页面的状态属于每个玩家，无法共享。
+ *
+ * ```
+ * val template = buildMenuTemplate("商店") {
+ *     map("#########", "#A B C D#", "#########")
+ *     set('#', XMaterial.GRAY_STAINED_GLASS_PANE) { name = " " }
+ *     onClick(lock = true)
+ * }
+ * player.openMenu(template) {
+ *     set('A', buildItem(XMaterial.PAPER) { name = "余额: ${player.balance}" })
+ * }
+ * ```
+ *
+ * @param prototype 执行过构建函数的原型页面
+ * @author agent
+ * @since 2026/10/19 12:25
+ */
+class MenuTemplate(val prototype: ChestImpl) {
+
+    /** 预渲染的页面内容 */
+    private val rendered: Array<ItemStack?> = prototype.build().contents.map { it?.clone() }.toTypedArray()
+
+    /** 预渲染的页面内容（副本，修改不会影响模板） */
+    val contents: List<ItemStack?>
+        get() = rendered.map { it?.clone() }
+
+    /** 页面大小 */
+    val size: Int
+        get() = rendered.size
+
+    /** 抽象字符对应的位置 */
+    val charSlots: Map<Char, IntArray> = prototype.slots.flatten().distinct().associateWith { prototype.getSlots(it).toIntArray() }
+
+    /** 原型页面的点击回调分发表 */
+    val clickDispatcher = ClickDispatcher(prototype.clickCallback)
+
+    /** 标题 */
+    val title: String
+        get() = prototype.title
+
+    /**
+     * 为玩家构建页面
+     *
+     * @param overlay 覆盖层，仅对本次构建生效
+     */
+    fun build(overlay: Chest.() -> Unit = {}): Inventory {
+        return TemplateChestImpl(this).also(overlay).build()
+    }
+
+    /**
+     * 复制预渲染的页面内容
+     * 仅复制数组，物品在写入页面时由页面自行复制
+     */
+    internal fun copyContents(): Array<ItemStack?> {
+        return rendered.copyOf()
+    }
+
+    companion object {
+
+        /**
+         * 创建原型页面并执行构建函数
+         * 原型页面默认的构建与关闭回调会修改原型自身的状态，因此在执行构建函数前替换为空回调，由每个页面重新绑定
+         */
+        fun create(title: String, builder: Chest.() -> Unit): MenuTemplate {
+            val prototype = ChestImpl(title)
+            prototype.buildCallback = { _, _ -> }
+            prototype.closeCallback = {}
+            prototype.builder()
+            return MenuTemplate(prototype)
+        }
+    }
+}
+
+/**
+ * 构建一个菜单模板，构建函数仅执行一次
+ */
+fun buildMenuTemplate(title: String = "chest", builder: Chest.() -> Unit): MenuTemplate {
+    return MenuTemplate.create(title, builder)
+}
+
+/**
+ * 通过菜单模板为玩家打开菜单
+ *
+ * @param overlay 覆盖层，仅对本次打开生效
+ */
+fun HumanEntity.openMenu(template: MenuTemplate, overlay: Chest.() -> Unit = {}) {
+    try {
+        openMenu(template.build(overlay))
+    } catch (ex: Throwable) {
+        ex.printStackTrace()
+    }
+}
@@ -0,0 +1,114 @@
+package taboolib.module.ui.test
+
+import org.bukkit.Material
+import org.bukkit.inventory.ItemStack
+import taboolib.common.Test
+import taboolib.module.ui.ClickBinding
+import taboolib.module.ui.ClickEvent
+import taboolib.module.ui.ClickType
+import taboolib.module.ui.type.impl.ChestImpl
+import taboolib.module.ui.virtual.RemoteInventory
+import taboolib.module.ui.virtual.VirtualInventoryInteractEvent
+import java.util.*
+
+/**
+ * TabooLib
+ * taboolib.module.ui.test.TestClickDispatcher
+ *
+ * @author agent
+ * @since 2026/10/19 12:52
+ */
+object TestClickDispatcher : Test() {
+
+    override fun check(): List<Result> {
+        val result = arrayListOf<Result>()
+        // 与逐个执行回调（clickCallback.forEach { it(event) }）的结果一致
+        result += sandbox("UI:ClickDispatcher.dispatch()") {
+            val random = Random(0)
+            repeat(50) {
+                val chest = ChestImpl("test")
+                val fired = ArrayList<Int>()
+                repeat(random.nextInt(32)) { id -> addRandomCallback(chest, random, id, fired) }
+                assertSameAsIteration(chest, fired)
+            }
+        }
+        // 回调被添加、替换或移除后重新编译，未修改时复用
+        result += sandbox("UI:ChestImpl.getClickDispatcher()") {
+            val chest = ChestImpl("test")
+            val fired = ArrayList<Int>()
+            chest.onClick(0) { fired += 0 }
+            val first = chest.getClickDispatcher()
+            check(chest.getClickDispatcher() === first)
+            assertSameAsIteration(chest, fired)
+            // 替换
+            chest.clickCallback[0] = ClickBinding.of(1) { fired += 1 }
+            val second = chest.getClickDispatcher()
+            check(second !== first)
+            assertSameAsIteration(chest, fired)
+            // 清空后重新添加
+            chest.clickCallback.clear()
+            chest.onClick('a') { fired += 2 }
+            chest.onClick(lock = true) { fired += 3 }
+            val third = chest.getClickDispatcher()
+            check(third !== second && chest.getClickDispatcher() === third)
+            assertSameAsIteration(chest, fired)
+            // 移除
+            chest.clickCallback.removeAt(0)
+            check(chest.getClickDispatcher() !== third)
+            assertSameAsIteration(chest, fired)
+        }
+        return result
+    }
+
+    private val CHARS = charArrayOf(' ', 'a', 'b', 'c')
+
+    /**
+     * 在所有位置与抽象字符下，分发表执行的回调与逐个执行回调时一致（包括顺序）
+     */
+    private fun assertSameAsIteration(chest: ChestImpl, fired: MutableList<Int>) {
+        for (rawSlot in -1 until 54) {
+            for (slot in CHARS) {
+                fired.clear()
+                chest.clickCallback.forEach { it(createEvent(chest, rawSlot, slot)) }
+                val expected = fired.toList()
+                fired.clear()
+                chest.getClickDispatcher().dispatch(createEvent(chest, rawSlot, slot))
+                check(expected == fired) { "rawSlot=$rawSlot, slot=$slot, expected=$expected, actual=$fired" }
+            }
+        }
+    }
+
+    /**
+     * 通过页面的 onClick 方法注册随机的回调
+     */
+    private fun addRandomCallback(chest: ChestImpl, random: Random, id: Int, fired: MutableList<Int>) {
+        when (random.nextInt(4)) {
+            0 -> chest.onClick(lock = random.nextBoolean()) { fired += id }
+            1 -> chest.onClick(random.nextInt(54)) { fired += id }
+            2 -> chest.onClick(CHARS[random.nextInt(CHARS.size)]) { fired += id }
+            // 直接添加到回调列表
+            else -> chest.clickCallback += ClickBinding.of(random.nextInt(54)) { fired += id }
+        }
+    }
+
+    /**
+     * 创建虚拟点击事件
+     * 事件只用于读取点击位置与取消状态，因此不经过构造函数创建，无需真实的 InventoryView
+     */
+    private fun createEvent(chest: ChestImpl, rawSlot: Int, slot: Char): ClickEvent {
+        val event = UNSAFE.allocateInstance(VirtualInventoryInteractEvent::class.java) as VirtualInventoryInteractEvent
+        val click = RemoteInventory.ClickEvent(org.bukkit.event.inventory.ClickType.LEFT, rawSlot, -1, ItemStack(Material.AIR))
+        CLICK_EVENT_FIELD.set(event, click)
+        return ClickEvent(event, ClickType.VIRTUAL, slot, chest)
+    }
+
+    private val UNSAFE by lazy {
+        val field = sun.misc.Unsafe::class.java.getDeclaredField("theUnsafe")
+        field.isAccessible = true
+        field.get(null) as sun.misc.Unsafe
+    }
+
+    private val CLICK_EVENT_FIELD by lazy {
+        VirtualInventoryInteractEvent::class.java.getDeclaredField("clickEvent").also { it.isAccessible = true }
+    }
+}
@@ -0,0 +1,77 @@
+package taboolib.module.ui.test
+
+import taboolib.common.Test
+import taboolib.module.ui.virtual.WindowTracker
+
+/**
+ * TabooLib
+ * taboolib.module.ui.test.TestWindowTracker
+ *
+ * @author agent
+ * @since 2026/10/19 12:58
+ */
+object TestWindowTracker : Test() {
+
+    override fun check(): List<Result> {
+        return listOf(
+            sandbox("UI:WindowTracker") {
+                val connection = CountingConnection()
+                val tracker = WindowTracker(connection)
+                val items = MutableList(90) { "air" }
+                // 首次刷新发送完整页面
+                tracker.refresh(items, "air")
+                connection.expect(full = 1, slots = 0)
+                // 没有变化时不发送
+                tracker.refresh(items, "air")
+                connection.expect(full = 0, slots = 0)
+                // 仅发送变化的位置
+                items[0] = "stone"
+                items[10] = "dirt"
+                tracker.refresh(items, "air")
+                connection.expect(full = 0, slots = 2)
+                // 光标变化
+                tracker.refresh(items, "apple")
+                connection.expect(full = 0, slots = 1)
+                // 变化的位置过多时发送完整页面
+                items.indices.forEach { items[it] = "stone" }
+                tracker.refresh(items, "apple")
+                connection.expect(full = 1, slots = 0)
+                // 单独发送的位置会被记录
+                items[5] = "dirt"
+                tracker.slotChanged(5, "dirt")
+                tracker.refresh(items, "apple")
+                connection.expect(full = 0, slots = 0)
+                // 点击后客户端内容未知，即使没有变化也发送完整页面
+                tracker.invalidate()
+                tracker.refresh(items, "apple")
+                connection.expect(full = 1, slots = 0)
+            }
+        )
+    }
+
+    /**
+     * 记录数据包数量的假连接
+     */
+    class CountingConnection : WindowTracker.Connection<String> {
+
+        var full = 0
+        var slots = 0
+
+        override fun sendWindowItems(items: List<String>, cursor: String) {
+            full++
+        }
+
+        override fun sendSlots(changes: List<Pair<Int, String>>) {
+            slots += changes.size
+        }
+
+        /** 检查并清空计数 */
+        fun expect(full: Int, slots: Int) {
+            if (this.full != full || this.slots != slots) {
+                error("expected full=$full, slots=$slots, actual full=${this.full}, slots=${this.slots}")
+            }
+            this.full = 0
+            this.slots = 0
+        }
+    }
+}
@@ -145,6 +145,31 @@ interface Chest : Menu {
      */
     fun set(slot: Int, itemStack: ItemStack, onClick: ClickEvent.() -> Unit = {})
 
+    /**
+     * 根据抽象符号设置动画物品
+     * 由统一的动画调度器驱动，页面关闭后自动停止
+     *
+     * @param period 每帧间隔（tick）
+     * @param frame 帧回调，返回 null 时清空该位置
+     */
+    fun animate(slot: Char, period: Int = 1, frame: (player: Player, frame: Int) -> ItemStack?)
+
+    /**
+     * 根据位置设置动画物品
+     * 由统一的动画调度器驱动，页面关闭后自动停止
+     *
+     * @param period 每帧间隔（tick）
+     * @param frame 帧回调，返回 null 时清空该位置
+     */
+    fun animate(slot: Int, period: Int = 1, frame: (player: Player, frame: Int) -> ItemStack?)
+
+    /**
+     * 根据抽象符号设置循环播放的动画物品
+     */
+    fun animate(slot: Char, period: Int = 1, frames: List<ItemStack>) {
+        animate(slot, period) { _, frame -> frames.getOrNull(frame % frames.size.coerceAtLeast(1)) }
+    }
+
     /**
      * 获取位置对应的抽象字符
      */
@@ -0,0 +1,65 @@
+package taboolib.module.ui.type
+
+import org.bukkit.inventory.ItemStack
+
+/**
+ * 可翻页容器的数据源
+ *
+ * 与 [PageableChest.elements] 不同，数据源只需提供当前页面所需的元素，
+ * 适用于拍卖行等元素数量庞大、或需要从数据库分页查询的页面。
+ *
+ * @author agent
+ * @since 2026/10/19 12:24
+ */
+fun interface PageSource<T> {
+
+    /**
+     * 获取 [offset] 起最多 [limit] 个元素
+     * 返回数量少于 [limit] 时视为已到达末尾
+     *
+     * 若启用异步加载，该方法将在异步线程中调用
+     */
+    fun fetch(offset: Int, limit: Int): List<T>
+
+    /**
+     * 已加载的页面
+     *
+     * @param index 页数
+     * @param elements 页面元素
+     * @param hasNext 是否存在下一页
+     */
+    class Page<T>(val index: Int, val elements: List<T>, val hasNext: Boolean) {
+
+        /** 已生成的元素物品，与 [elements] 一一对应 */
+        val items = arrayOfNulls<ItemStack>(elements.size)
+    }
+
+    companion object {
+
+        /**
+         * 加载页面，额外获取一个元素以判断是否存在下一页
+         *
+         * @param page 页数
+         * @param size 每页元素数量
+         */
+        fun <T> PageSource<T>.load(page: Int, size: Int): Page<T> {
+            if (size <= 0) {
+                return Page(page, emptyList(), false)
+            }
+            val elements = fetch(page * size, size + 1)
+            return Page(page, if (elements.size > size) elements.subList(0, size) else elements, elements.size > size)
+        }
+
+        /**
+         * 基于完整列表的数据源
+         */
+        fun <T> of(elements: () -> List<T>): PageSource<T> {
+            return PageSource { offset, limit ->
+                val list = elements()
+                // 仅复制所需范围，而非遍历整个列表
+                val start = offset.coerceIn(0, list.size)
+                list.subList(start, (offset + limit).coerceIn(start, list.size)).toList()
+            }
+        }
+    }
+}
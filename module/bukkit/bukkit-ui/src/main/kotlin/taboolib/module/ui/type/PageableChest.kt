@@ -39,6 +39,25 @@ interface PageableChest<T> : Chest {
      */
     fun elements(elements: () -> List<T>)
 
+    /**
+     * 页面数据源，仅获取当前页面所需的元素
+     * 设置后 [elements] 将失效
+     *
+     * @param async 是否异步加载，加载完成前显示 [placeholder] 设置的物品
+     */
+    fun source(async: Boolean = false, source: PageSource<T>)
+
+    /**
+     * 异步加载页面时，元素位置显示的占位物品
+     */
+    fun placeholder(callback: (player: Player, slot: Int) -> ItemStack)
+
+    /**
+     * 是否缓存由 [onGenerate] 生成的物品（按页面与元素缓存）
+     * 调用 [resetElementsCache] 时清空
+     */
+    fun cacheItems(value: Boolean = true)
+
     /**
      * 元素对应物品生成回调
      */
@@ -8,8 +8,12 @@ import org.bukkit.inventory.Inventory
 import org.bukkit.inventory.ItemStack
 import taboolib.common.util.t
 import taboolib.library.xseries.XMaterial
+import taboolib.module.ui.ClickBinding
+import taboolib.module.ui.ClickCallbackList
+import taboolib.module.ui.ClickDispatcher
 import taboolib.module.ui.ClickEvent
 import taboolib.module.ui.ClickType
+import taboolib.module.ui.MenuAnimation
 import taboolib.module.ui.MenuHolder
 import taboolib.module.ui.openMenu
 import taboolib.module.ui.type.Chest
@@ -48,12 +52,15 @@ open class ChestImpl(override var title: String) : Chest {
     /** MenuHolder 回调 **/
     var holderCallback: ((menu: ChestImpl) -> MenuHolder) = { MenuHolder(it) }
 
-    /** 点击回调 **/
-    val clickCallback = CopyOnWriteArrayList<(event: ClickEvent) -> Unit>()
+    /** 点击回调（修改后分发表会自动重新编译，见 [ClickCallbackList]） **/
+    val clickCallback: CopyOnWriteArrayList<(event: ClickEvent) -> Unit> = ClickCallbackList()
 
     /** 点击回调 **/
     var selfClickCallback: (event: ClickEvent) -> Unit = {}
 
+    /** 动画物品 **/
+    val animations = CopyOnWriteArrayList<MenuAnimation.Entry>()
+
     /** 关闭回调 **/
     var closeCallback: ((event: InventoryCloseEvent) -> Unit) = { isOpened = false }
 
@@ -170,13 +177,11 @@ open class ChestImpl(override var title: String) : Chest {
      * 仅在特定位置下触发
      */
     override fun onClick(bind: Int, callback: (event: ClickEvent) -> Unit) {
-        onClick {
-            if (it.rawSlot == bind) {
-                it.isCancelled = true
-                // 只处理 CLICK 类型
-                if (it.clickType != ClickType.DRAG) {
-                    callback(it)
-                }
+        clickCallback += ClickBinding.of(bind) {
+            it.isCancelled = true
+            // 只处理 CLICK 类型
+            if (it.clickType != ClickType.DRAG) {
+                callback(it)
             }
         }
     }
@@ -186,13 +191,11 @@ open class ChestImpl(override var title: String) : Chest {
      * 仅在特定位置下触发
      */
     override fun onClick(bind: Char, callback: (event: ClickEvent) -> Unit) {
-        onClick {
-            if (it.slot == bind) {
-                it.isCancelled = true
-                // 只处理 CLICK 类型
-                if (it.clickType != ClickType.DRAG) {
-                    callback(it)
-                }
+        clickCallback += ClickBinding.of(bind) {
+            it.isCancelled = true
+            // 只处理 CLICK 类型
+            if (it.clickType != ClickType.DRAG) {
+                callback(it)
             }
         }
     }
@@ -219,6 +222,23 @@ open class ChestImpl(override var title: String) : Chest {
         selfClickCallback = callback
     }
 
+    /**
+     * 分发点击事件
+     * 按注册顺序执行与点击位置相关的回调，最后执行 selfClickCallback
+     */
+    open fun dispatchClick(event: ClickEvent) {
+        getClickDispatcher().dispatch(event)
+        selfClickCallback(event)
+    }
+
+    /**
+     * 获取点击回调分发表
+     * 若回调列表在编译后发生变化则重新编译
+     */
+    fun getClickDispatcher(): ClickDispatcher {
+        return (clickCallback as ClickCallbackList).dispatcher
+    }
+
     /**
      * 使用抽象字符页面布局
      */
@@ -295,6 +315,20 @@ open class ChestImpl(override var title: String) : Chest {
         onClick(slot, onClick)
     }
 
+    /**
+     * 根据抽象符号设置动画物品
+     */
+    override fun animate(slot: Char, period: Int, frame: (player: Player, frame: Int) -> ItemStack?) {
+        animations += MenuAnimation.Entry(-1, slot, period.coerceAtLeast(1), frame)
+    }
+
+    /**
+     * 根据位置设置动画物品
+     */
+    override fun animate(slot: Int, period: Int, frame: (player: Player, frame: Int) -> ItemStack?) {
+        animations += MenuAnimation.Entry(slot, null, period.coerceAtLeast(1), frame)
+    }
+
     /**
      * 获取位置对应的抽象字符
      */
@@ -377,6 +411,8 @@ open class ChestImpl(override var title: String) : Chest {
         if (virtualized) {
             lastInventory = lastInventory.virtualize(virtualizedStorageContents)
         }
+        // 编译点击回调
+        getClickDispatcher()
         var row = 0
         while (row < slots.size) {
             val line = slots[row]
@@ -4,13 +4,17 @@ import org.bukkit.Material
 import org.bukkit.entity.Player
 import org.bukkit.inventory.Inventory
 import org.bukkit.inventory.ItemStack
-import taboolib.common.util.subList
+import taboolib.common.platform.function.submit
+import taboolib.common.platform.function.submitAsync
 import taboolib.module.ui.ClickEvent
+import taboolib.module.ui.type.PageSource
+import taboolib.module.ui.type.PageSource.Companion.load
 import taboolib.module.ui.type.PageableChest
 import taboolib.module.ui.virtual.VirtualInventory
 import taboolib.module.ui.virtual.inject
 import taboolib.module.ui.virtual.openVirtualInventory
 import taboolib.platform.util.isNotAir
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.CopyOnWriteArrayList
 
 open class PageableChestImpl<T>(title: String) : ChestImpl(title), PageableChest<T> {
@@ -33,6 +37,27 @@ open class PageableChestImpl<T>(title: String) : ChestImpl(title), PageableChest
     /** 页面可用元素缓存 **/
     var elementsCache = emptyList<T>()
 
+    /** 页面数据源，为空时使用 [elementsCallback] **/
+    var pageSource: PageSource<T>? = null
+
+    /** 是否异步加载页面 **/
+    var asyncPageSource = false
+
+    /** 已加载的页面 **/
+    val pageCache = ConcurrentHashMap<Int, PageSource.Page<T>>()
+
+    /** 是否缓存生成的物品 **/
+    var cacheItems = false
+
+    /** 占位物品回调 **/
+    var placeholderCallback: ((player: Player, slot: Int) -> ItemStack)? = null
+
+    /** 页面加载完成后需要重新渲染的物品（如翻页按钮） **/
+    val pageRenderCallbacks = CopyOnWriteArrayList<(inventory: Inventory) -> Unit>()
+
+    /** 基于 [elementsCache] 的数据源 **/
+    private val elementsSource = PageSource.of { elementsCache }
+
     /** 点击事件回调 **/
     var elementClickCallback: ((event: ClickEvent, element: T) -> Unit) = { _, _ -> }
 
@@ -80,6 +105,30 @@ open class PageableChestImpl<T>(title: String) : ChestImpl(title), PageableChest
      */
     override fun elements(elements: () -> List<T>) {
         elementsCallback = elements
+        pageSource = null
+    }
+
+    /**
+     * 页面数据源
+     */
+    override fun source(async: Boolean, source: PageSource<T>) {
+        pageSource = source
+        asyncPageSource = async
+        pageCache.clear()
+    }
+
+    /**
+     * 占位物品
+     */
+    override fun placeholder(callback: (player: Player, slot: Int) -> ItemStack) {
+        placeholderCallback = callback
+    }
+
+    /**
+     * 是否缓存生成的物品
+     */
+    override fun cacheItems(value: Boolean) {
+        cacheItems = value
     }
 
     /**
@@ -112,7 +161,9 @@ open class PageableChestImpl<T>(title: String) : ChestImpl(title), PageableChest
      */
     override fun setNextPage(slot: Int, callback: (page: Int, hasNextPage: Boolean) -> ItemStack) {
         // 设置物品
-        set(slot) { callback(page, hasNextPage()) }
+        val render: (inventory: Inventory) -> Unit = { it.setItem(slot, callback(page, hasNextPage())) }
+        onBuild { _, inventory -> render(inventory) }
+        pageRenderCallbacks += render
         // 点击事件
         onClick(slot) {
             if (hasNextPage()) {
@@ -133,7 +184,9 @@ open class PageableChestImpl<T>(title: String) : ChestImpl(title), PageableChest
      */
     override fun setPreviousPage(slot: Int, callback: (page: Int, hasPreviousPage: Boolean) -> ItemStack) {
         // 设置物品
-        set(slot) { callback(page, hasPreviousPage()) }
+        val render: (inventory: Inventory) -> Unit = { it.setItem(slot, callback(page, hasPreviousPage())) }
+        onBuild { _, inventory -> render(inventory) }
+        pageRenderCallbacks += render
         // 点击事件
         onClick(slot) {
             if (hasPreviousPage()) {
@@ -167,6 +220,9 @@ open class PageableChestImpl<T>(title: String) : ChestImpl(title), PageableChest
      * 是否可以前往下一页
      */
     override fun hasNextPage(): Boolean {
+        if (pageSource != null) {
+            return pageCache[page]?.hasNext ?: false
+        }
         return isNext(page, elementsCache.size, menuSlots.size)
     }
 
@@ -175,31 +231,53 @@ open class PageableChestImpl<T>(title: String) : ChestImpl(title), PageableChest
     }
 
     override fun resetElementsCache() {
-        elementsCache = elementsCallback()
+        pageCache.clear()
+        if (pageSource == null) {
+            elementsCache = elementsCallback()
+        }
+    }
+
+    /**
+     * 加载页面，已加载的页面直接返回
+     */
+    fun loadPage(page: Int): PageSource.Page<T> {
+        pageCache[page]?.let { return it }
+        val loaded = (pageSource ?: elementsSource).load(page, menuSlots.size)
+        return pageCache.putIfAbsent(page, loaded) ?: loaded
     }
 
     /**
      * 构建页面
      */
     override fun build(): Inventory {
-        // 更新元素列表缓存
-        elementsCache = elementsCallback()
+        // 未设置数据源时，更新元素列表缓存
+        if (pageSource == null) {
+            elementsCache = elementsCallback()
+            pageCache.clear()
+        }
+        val currentPage = page
+        // 同步加载当前页面
+        val preloaded = if (!asyncPageSource || pageSource == null) loadPage(currentPage) else null
 
         // 本次页面所使用的元素缓存
-        val elementMap = hashMapOf<Int, T>()
-        val elementItems = subList(elementsCache, page * menuSlots.size, (page + 1) * menuSlots.size)
+        val elementMap = ConcurrentHashMap<Int, T>()
 
         /**
          * 构建事件处理函数
          */
-        fun processBuild(p: Player, inventory: Inventory, async: Boolean) {
+        fun processBuild(p: Player, inventory: Inventory, async: Boolean, data: PageSource.Page<T>) {
             viewer = p
-            elementItems.forEachIndexed { index, item ->
+            data.elements.forEachIndexed { index, item ->
                 val slot = menuSlots.getOrNull(index) ?: 0
                 elementMap[slot] = item
                 // 生成元素对应物品
-                val callback = if (async) asyncGenerateCallback else generateCallback
-                val itemStack = callback(viewer, item, index, slot)
+                val itemStack = if (async) {
+                    asyncGenerateCallback(viewer, item, index, slot)
+                } else if (cacheItems) {
+                    data.items[index] ?: generateCallback(viewer, item, index, slot).also { data.items[index] = it }
+                } else {
+                    generateCallback(viewer, item, index, slot)
+                }
                 if (itemStack.isNotAir()) {
                     inventory.setItem(slot, itemStack)
                 }
@@ -207,9 +285,42 @@ open class PageableChestImpl<T>(title: String) : ChestImpl(title), PageableChest
         }
 
         // 生成回调
-        selfBuild { p, it -> processBuild(p, it, false) }
+        selfBuild { p, inventory ->
+            viewer = p
+            val data = preloaded ?: pageCache[currentPage]
+            if (data != null) {
+                processBuild(p, inventory, false, data)
+                return@selfBuild
+            }
+            // 显示占位物品
+            val placeholder = placeholderCallback
+            if (placeholder != null) {
+                menuSlots.forEach { inventory.setItem(it, placeholder(p, it)) }
+            }
+            // 异步加载页面
+            submitAsync {
+                val loaded = loadPage(currentPage)
+                submit {
+                    // 页面已切换
+                    if (page != currentPage) {
+                        return@submit
+                    }
+                    // 清除多余的占位物品
+                    if (placeholder != null) {
+                        menuSlots.drop(loaded.elements.size).forEach { inventory.setItem(it, null) }
+                    }
+                    processBuild(p, inventory, false, loaded)
+                    pageRenderCallbacks.forEach { it(inventory) }
+                    submitAsync { processBuild(p, inventory, true, loaded) }
+                }
+            }
+        }
         // 生成异步回调
-        selfBuild(async = true) { p, it -> processBuild(p, it, true) }
+        selfBuild(async = true) { p, inventory ->
+            // 异步加载的页面在加载完成后处理
+            val data = preloaded ?: pageCache[currentPage] ?: return@selfBuild
+            processBuild(p, inventory, true, data)
+        }
         // 生成点击回调
         selfClick {
             if (menuLocked) {
@@ -5,6 +5,7 @@ import org.bukkit.event.inventory.InventoryAction
 import org.bukkit.inventory.Inventory
 import org.bukkit.inventory.ItemStack
 import taboolib.common.util.t
+import taboolib.module.ui.ClickBinding
 import taboolib.module.ui.ClickEvent
 import taboolib.module.ui.ClickType
 import taboolib.module.ui.type.*
@@ -35,11 +36,7 @@ open class StorableChestImpl(title: String) : ChestImpl(title), StorableChest {
      * 相比于 Basic，Stored 的所有点击事件回调均会处理 DRAG 类型
      */
     override fun onClick(bind: Int, callback: (event: ClickEvent) -> Unit) {
-        onClick {
-            if (it.rawSlot == bind) {
-                callback(it)
-            }
-        }
+        clickCallback += ClickBinding.of(bind, callback)
     }
 
     /**
@@ -47,11 +44,7 @@ open class StorableChestImpl(title: String) : ChestImpl(title), StorableChest {
      * 仅在特定位置下触发
      */
     override fun onClick(bind: Char, callback: (event: ClickEvent) -> Unit) {
-        onClick {
-            if (it.slot == bind) {
-                callback(it)
-            }
-        }
+        clickCallback += ClickBinding.of(bind, callback)
     }
 
     /**
@@ -0,0 +1,85 @@
+package taboolib.module.ui.type.impl
+
+import org.bukkit.Bukkit
+import org.bukkit.inventory.Inventory
+import taboolib.common.util.t
+import taboolib.module.ui.ClickEvent
+import taboolib.module.ui.MenuTemplate
+import taboolib.module.ui.virtual.virtualize
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * 基于 [MenuTemplate] 的页面
+ *
+ * 布局、预设物品与点击回调均与模板共享，自身仅保存覆盖层的内容。
+ */
+open class TemplateChestImpl(val template: MenuTemplate) : ChestImpl(template.title) {
+
+    init {
+        val prototype = template.prototype
+        rows = prototype.rows
+        slots = prototype.slots
+        items = ConcurrentHashMap()
+        handLocked = prototype.handLocked
+        virtualized = prototype.virtualized
+        virtualizedStorageContents = prototype.virtualizedStorageContents
+        holderCallback = { prototype.holderCallback(it) }
+        // 原型的默认回调为空回调（见 MenuTemplate.create），状态由每个页面自行维护
+        val closeBefore = prototype.closeCallback
+        closeCallback = {
+            isOpened = false
+            closeBefore(it)
+        }
+        onceCloseCallback = prototype.onceCloseCallback
+        isSkipCloseCallbackOnUpdateTitle = prototype.isSkipCloseCallbackOnUpdateTitle
+        selfClickCallback = prototype.selfClickCallback
+        animations += prototype.animations
+        // 模板的构建回调仍在每次打开时执行
+        val buildBefore = prototype.buildCallback
+        buildCallback = { player, inventory ->
+            buildBefore(player, inventory)
+            isOpened = true
+        }
+        asyncBuildCallback = prototype.asyncBuildCallback
+        selfBuildCallback = prototype.selfBuildCallback
+        selfAsyncBuildCallback = prototype.selfAsyncBuildCallback
+    }
+
+    /**
+     * 模板布局不可修改
+     */
+    override fun map(vararg slots: String) {
+        error(
+            """
+                无法修改模板页面的布局。
+                Cannot change the layout of a template menu.
+            """.t()
+        )
+    }
+
+    /**
+     * 先执行模板的点击回调，再执行覆盖层的点击回调
+     */
+    override fun dispatchClick(event: ClickEvent) {
+        template.clickDispatcher.dispatch(event)
+        getClickDispatcher().dispatch(event)
+        selfClickCallback(event)
+    }
+
+    /**
+     * 复制预渲染的页面内容，并写入覆盖层物品
+     */
+    override fun build(): Inventory {
+        lastInventory = Bukkit.createInventory(holderCallback(this), template.size, createTitle())
+        // 虚拟化
+        if (virtualized) {
+            lastInventory = lastInventory.virtualize(virtualizedStorageContents)
+        }
+        lastInventory.contents = template.copyContents()
+        // 覆盖层
+        items.forEach { (char, item) ->
+            template.charSlots[char]?.forEach { lastInventory.setItem(it, item) }
+        }
+        return lastInventory
+    }
+}
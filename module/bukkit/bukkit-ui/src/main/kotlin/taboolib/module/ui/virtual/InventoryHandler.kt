@@ -102,6 +102,8 @@ abstract class InventoryHandler {
                     val player = e.player
                     val remoteInventory = playerRemoteInventoryMap[player.name]
                     if (remoteInventory != null && remoteInventory.id == id) {
+                        // 客户端已自行预测了点击结果
+                        remoteInventory.invalidate()
                         remoteInventory.handleClick(e.packet)
                     }
                 }
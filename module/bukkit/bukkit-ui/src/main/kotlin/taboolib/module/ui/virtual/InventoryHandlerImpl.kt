@@ -137,12 +137,39 @@ class InventoryHandlerImpl : InventoryHandler() {
         var onCloseCallback: (() -> Unit)? = null
         var onClickCallback: (RemoteInventory.ClickEvent.() -> Unit)? = null
 
+        /** 已发送给玩家的页面内容，用于差异刷新 */
+        val tracker = WindowTracker(object : WindowTracker.Connection<ItemStack> {
+
+            override fun sendWindowItems(items: List<ItemStack>, cursor: ItemStack) {
+                sendWindowItemsPacket(items, cursor)
+            }
+
+            override fun sendSlots(changes: List<Pair<Int, ItemStack>>) {
+                if (isClosed) {
+                    return
+                }
+                val packets = changes.map { (slot, item) -> createSlotChangePacket(slot, item) }
+                if (packets.size == 1) {
+                    viewer.sendPacket(packets[0])
+                } else {
+                    viewer.sendBundlePacket(packets)
+                }
+            }
+        }) { it.clone() }
+
         init {
             refresh(inventory.contents.map { it ?: air }, inventory.storageContents, cursorItem)
         }
 
-        @Suppress("CAST_NEVER_SUCCEEDS")
+        /**
+         * 发送完整页面
+         */
         fun sendInitialData(windowItems: List<ItemStack>, cursorItem: ItemStack) {
+            tracker.sendFull(windowItems, cursorItem)
+        }
+
+        @Suppress("CAST_NEVER_SUCCEEDS")
+        private fun sendWindowItemsPacket(windowItems: List<ItemStack>, cursorItem: ItemStack) {
             if (isClosed) {
                 return
             }
@@ -174,6 +201,7 @@ class InventoryHandlerImpl : InventoryHandler() {
                 viewer.sendPacket(initPacket)
             } else {
                 viewer.sendBundlePacket(openPacket, initPacket)
+                isOpened = true
             }
         }
 
@@ -191,25 +219,35 @@ class InventoryHandlerImpl : InventoryHandler() {
                 items += storageContents
                 items += List(36 - storageContents.size) { air }
             }
-            // 初始化页面
-            sendInitialData(items, cursorItem)
+            // 仅发送发生变化的位置
+            tracker.refresh(items, cursorItem)
         }
 
         override fun sendSlotChange(slot: Int, itemStack: ItemStack) {
             if (isClosed) {
                 return
             }
+            viewer.sendPacket(createSlotChangePacket(slot, itemStack))
+            // 同步已发送的页面内容
+            tracker.slotChanged(slot, itemStack)
+        }
+
+        override fun invalidate() {
+            tracker.invalidate()
+        }
+
+        fun createSlotChangePacket(slot: Int, itemStack: ItemStack): Any {
             val id = if (slot == -1) -1 else id
-            when (major) {
+            return when (major) {
                 // 1.8 1.9, 1.10, 1.11, 1.12, 1.13, 1.14, 1.15, 1.16
                 // public PacketPlayOutSetSlot(int var1, int var2, ItemStack var3)
                 in MinecraftVersion.V1_8..MinecraftVersion.V1_16 -> {
-                    viewer.sendPacket(NMS16PacketPlayOutSetSlot(id, slot, Craft16ItemStack.asNMSCopy(itemStack)))
+                    NMS16PacketPlayOutSetSlot(id, slot, Craft16ItemStack.asNMSCopy(itemStack))
                 }
                 // 1.17, 1.18, 1.19, 1.20
                 // public PacketPlayOutSetSlot(int var0, int var1, int var2, ItemStack var3)
                 in MinecraftVersion.V1_17..MinecraftVersion.V1_21 -> {
-                    viewer.sendPacket(NMSPacketPlayOutSetSlot(id, incrementStateId(), slot, Craft19ItemStack.asNMSCopy(itemStack)))
+                    NMSPacketPlayOutSetSlot(id, incrementStateId(), slot, Craft19ItemStack.asNMSCopy(itemStack))
                 }
                 // 不支持
                 else -> throw UnsupportedVersionException()
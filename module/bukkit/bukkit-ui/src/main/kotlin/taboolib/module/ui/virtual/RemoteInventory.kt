@@ -35,6 +35,9 @@ interface RemoteInventory {
     /** 设置光标物品 */
     fun sendCarriedChange(itemStack: ItemStack)
 
+    /** 客户端显示的内容不再可信（例如玩家点击了页面），下一次刷新发送完整页面 */
+    fun invalidate()
+
     /** 点击时回调 */
     fun onClick(callback: ClickEvent.() -> Unit)
 
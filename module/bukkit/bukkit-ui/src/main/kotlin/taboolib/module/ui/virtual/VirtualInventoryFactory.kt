@@ -54,8 +54,7 @@ fun <T : ChestImpl> RemoteInventory.inject(menu: T) {
         try {
             val e = VirtualInventoryInteractEvent(this, createInventoryView())
             val event = ClickEvent(e, ClickType.VIRTUAL, menu.getSlot(clickSlot), menu)
-            menu.clickCallback.forEach { it(event) }
-            menu.selfClickCallback(event)
+            menu.dispatchClick(event)
         } catch (t: Throwable) {
             t.printStackTrace()
         }
@@ -0,0 +1,63 @@
+package taboolib.module.ui.virtual
+
+/**
+ * TabooLib
+ * taboolib.module.ui.virtual.WindowDiff
+ *
+ * 虚拟页面内容差异
+ *
+ * 记录上一次发送给玩家的页面内容，刷新时仅对发生变化的位置发送 SetSlot 数据包；
+ * 当变化的位置超过 [fullRefreshRatio] 时，改为发送一次完整的 WindowItems 数据包。
+ *
+ * 此类不涉及任何 NMS 操作，可在没有服务端的情况下计算数据包数量。
+ *
+ * @param changedSlots 发生变化的位置
+ * @param isFull 是否需要发送完整页面
+ * @author agent
+ * @since 2026/10/19 12:23
+ */
+class WindowDiff(val changedSlots: IntArray, val isFull: Boolean) {
+
+    /** 是否没有任何变化 */
+    val isEmpty: Boolean
+        get() = !isFull && changedSlots.isEmpty()
+
+    /** 需要发送的数据包数量（不含打包数据包本身）*/
+    val packetCount: Int
+        get() = if (isFull) 1 else changedSlots.size
+
+    override fun toString(): String {
+        return "WindowDiff(changedSlots=${changedSlots.contentToString()}, isFull=$isFull)"
+    }
+
+    companion object {
+
+        /** 变化位置占比超过该值时发送完整页面 */
+        var fullRefreshRatio = 0.5
+
+        /**
+         * 计算两次页面内容之间的差异
+         *
+         * @param last 上一次发送的内容，为 null 时视为客户端状态未知，将发送完整页面
+         * @param current 本次内容
+         * @param ratio 变化位置占比超过该值时发送完整页面
+         * @param equals 判断两个位置的内容是否相同
+         */
+        fun <T> compute(last: List<T>?, current: List<T>, ratio: Double = fullRefreshRatio, equals: (T, T) -> Boolean = { a, b -> a == b }): WindowDiff {
+            if (last == null || last.size != current.size) {
+                return WindowDiff(IntArray(0), true)
+            }
+            val limit = (current.size * ratio).toInt()
+            val changed = ArrayList<Int>()
+            for (i in current.indices) {
+                if (!equals(last[i], current[i])) {
+                    changed += i
+                    if (changed.size > limit) {
+                        return WindowDiff(IntArray(0), true)
+                    }
+                }
+            }
+            return WindowDiff(changed.toIntArray(), false)
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package taboolib.module.ui.virtual
+
+/**
+ * TabooLib
+ * taboolib.module.ui.virtual.WindowTracker
+ *
+ * 记录已发送给玩家的页面内容，刷新时根据 [WindowDiff] 决定发送完整页面还是仅发送变化的位置。
+ *
+ * 玩家点击页面时客户端会自行预测点击结果，而服务端并不会纠正所有的预测（例如放置到空位、双击收集、拖动），
+ * 此时客户端显示的内容已不再是记录的内容，需要调用 [invalidate]，下一次刷新将发送完整页面。
+ *
+ * 数据包由 [Connection] 发送，不涉及任何 NMS 操作，可以使用计数的假连接验证数据包数量。
+ *
+ * @param connection 发送数据包的连接
+ * @param copy 记录内容时的复制方法（物品是可变的）
+ * @author agent
+ * @since 2026/10/19 12:58
+ */
+class WindowTracker<T>(val connection: Connection<T>, val copy: (T) -> T = { it }) {
+
+    /**
+     * 发送页面内容的连接
+     */
+    interface Connection<T> {
+
+        /** 发送完整页面 */
+        fun sendWindowItems(items: List<T>, cursor: T)
+
+        /** 发送变化的位置，位置为 -1 时表示光标 */
+        fun sendSlots(changes: List<Pair<Int, T>>)
+    }
+
+    /** 上一次发送的页面内容（副本） */
+    private var lastItems: MutableList<T>? = null
+
+    /** 上一次发送的光标物品（副本） */
+    private var lastCursor: T? = null
+
+    /** 客户端显示的内容是否已知 */
+    val isKnown: Boolean
+        @Synchronized get() = lastItems != null
+
+    /**
+     * 丢弃记录的内容，下一次刷新发送完整页面
+     */
+    @Synchronized
+    fun invalidate() {
+        lastItems = null
+        lastCursor = null
+    }
+
+    /**
+     * 刷新页面
+     * 客户端内容未知、页面大小改变或变化的位置过多时发送完整页面，否则仅发送变化的位置
+     */
+    @Synchronized
+    fun refresh(items: List<T>, cursor: T) {
+        val last = lastItems
+        val diff = WindowDiff.compute(last, items)
+        if (diff.isFull || last == null) {
+            sendFull(items, cursor)
+            return
+        }
+        val changes = ArrayList<Pair<Int, T>>(diff.changedSlots.size + 1)
+        diff.changedSlots.forEach { slot ->
+            changes += slot to items[slot]
+            last[slot] = copy(items[slot])
+        }
+        if (lastCursor != cursor) {
+            changes += -1 to cursor
+            lastCursor = copy(cursor)
+        }
+        if (changes.isNotEmpty()) {
+            connection.sendSlots(changes)
+        }
+    }
+
+    /**
+     * 发送完整页面
+     */
+    @Synchronized
+    fun sendFull(items: List<T>, cursor: T) {
+        connection.sendWindowItems(items, cursor)
+        lastItems = items.mapTo(ArrayList(items.size)) { copy(it) }
+        lastCursor = copy(cursor)
+    }
+
+    /**
+     * 记录单独发送的位置变化
+     */
+    @Synchronized
+    fun slotChanged(slot: Int, item: T) {
+        val last = lastItems
+        if (slot == -1) {
+            lastCursor = copy(item)
+        } else if (last != null && slot in last.indices) {
+            last[slot] = copy(item)
+        }
+    }
+}
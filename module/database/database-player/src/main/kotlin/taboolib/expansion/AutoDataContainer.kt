@@ -4,15 +4,31 @@ import taboolib.common.Inject
 import taboolib.common.LifeCycle
 import taboolib.common.platform.Awake
 import taboolib.common.platform.function.submitAsync
+import taboolib.common.platform.function.warning
 
 /**
  * 数据库优先容器，定期从数据库取出数据同步给缓存。
  *
+ * 数据库启用增量同步（[Database.isSyncEnabled]）时，所有容器的同步合并为一次查询，只取出修改过的数据。
+ * 删除操作无法通过增量同步获取，每个容器会每隔 [fullSyncTick] 完整读取一次。
+ *
  * @property user 用户标识
  * @property database 数据库实例
  */
 class AutoDataContainer(val user: String, val database: Database) {
 
+    /**
+     * 最后一次同步的时间
+     */
+    @Volatile
+    internal var lastSync = System.currentTimeMillis()
+
+    /**
+     * 最后一次完整读取的时间
+     */
+    @Volatile
+    internal var lastFullSync = lastSync
+
     /**
      * 存储用户数据的源
      */
@@ -84,7 +100,10 @@ class AutoDataContainer(val user: String, val database: Database) {
      * 可以酌情使用
      */
     fun update() {
+        val time = System.currentTimeMillis()
         source = database[user]
+        lastSync = time
+        lastFullSync = time
     }
 
     @Inject
@@ -95,14 +114,53 @@ class AutoDataContainer(val user: String, val database: Database) {
          */
         var syncTick = 80L
 
+        /**
+         * 完整读取的间隔，用于同步被删除的数据，为 0 时不进行完整读取
+         */
+        var fullSyncTick = 1200L
+
+        /**
+         * 增量同步向前多查询的时间（毫秒）
+         * 用于容忍服务器之间的时钟误差，以及查询时尚未提交的写入
+         */
+        var syncOverlap = 5000L
+
         /**
          * 定期更新所有 AutoDataContainer 实例的数据
          */
         @Awake(LifeCycle.ACTIVE)
         fun update() {
             submitAsync(period = syncTick) {
-                playerAutoDataContainer.entries.forEach {
-                    runCatching { it.value.update() }
+                sync(playerAutoDataContainer.values)
+            }
+        }
+
+        /**
+         * 同步容器的数据
+         * 同一数据库的容器通过一次查询取出修改过的数据，未启用增量同步的数据库仍然逐个完整读取
+         */
+        fun sync(containers: Collection<AutoDataContainer>) {
+            containers.groupBy { it.database }.forEach { (database, list) ->
+                if (!database.isSyncEnabled) {
+                    list.forEach { runCatching { it.update() } }
+                    return@forEach
+                }
+                val time = System.currentTimeMillis()
+                val (full, incremental) = list.partition { fullSyncTick > 0 && time - it.lastFullSync >= fullSyncTick * 50 }
+                full.forEach { runCatching { it.update() } }
+                if (incremental.isEmpty()) {
+                    return@forEach
+                }
+                val since = incremental.minOf { it.lastSync } - syncOverlap
+                val changes = try {
+                    database.getChanges(incremental.map { it.user }, since)
+                } catch (ex: Throwable) {
+                    warning("Failed to sync ${incremental.size} auto data container(s): ${ex.message}")
+                    return@forEach
+                }
+                incremental.forEach { container ->
+                    changes[container.user]?.let { container.source.putAll(it) }
+                    container.lastSync = time
                 }
             }
         }
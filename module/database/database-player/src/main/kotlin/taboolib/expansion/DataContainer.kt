@@ -2,7 +2,6 @@ package taboolib.expansion
 
 import taboolib.common.Inject
 import taboolib.common.platform.Schedule
-import taboolib.common.platform.function.submitAsync
 import java.util.UUID
 import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.TimeUnit
@@ -12,6 +11,9 @@ import java.util.concurrent.TimeUnit
  * 用于缓存数据并在一定时间后写入数据库
  * 数据库数据不同步给缓存
  *
+ * 写入会先进入数据库的写入缓冲区（[WriteBehind]），同一个键的多次写入只会保存最后一次，
+ * 释放容器时会同步写入该用户所有等待中的数据。
+ *
  * @property user 用户标识
  * @property database 数据库实例
  */
@@ -104,23 +106,34 @@ class DataContainer(val user: String, val database: Database) {
 
     /**
      * 保存指定键的值到数据库
+     * 写入缓冲区，在下一次刷新时与其他数据一同写入
      *
      * @param key 键
      */
     fun save(key: String) {
-        submitAsync { database[user, key] = source[key]!! }
+        database.writeBehind.put(user, key, source[key] ?: return)
     }
 
     /**
      * 检查并更新需要保存的键值对
+     *
+     * @param force 是否忽略延迟时间
      */
-    fun checkUpdate() {
-        updateMap.filterValues { it < System.currentTimeMillis() }.forEach { (t, _) ->
+    fun checkUpdate(force: Boolean = false) {
+        updateMap.filterValues { force || it < System.currentTimeMillis() }.forEach { (t, _) ->
             updateMap.remove(t)
             save(t)
         }
     }
 
+    /**
+     * 同步写入该用户所有等待中的数据（包括延迟更新的数据）
+     */
+    fun flush() {
+        checkUpdate(force = true)
+        database.writeBehind.flush(user)
+    }
+
     /**
      * 返回对象的字符串表示
      *
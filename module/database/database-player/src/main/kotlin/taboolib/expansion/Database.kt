@@ -1,12 +1,100 @@
 package taboolib.expansion
 
+import taboolib.common.platform.function.warning
+import taboolib.common.util.t
+import taboolib.module.database.ColumnSQL
+import taboolib.module.database.ColumnSQLite
+import taboolib.module.database.use
 import java.util.concurrent.ConcurrentHashMap
 import javax.sql.DataSource
 
 class Database(val type: Type, val dataSource: DataSource = type.host().createDataSource()) {
 
+    /**
+     *  写入缓冲区，由 [DataContainer] 使用
+     */
+    val writeBehind by lazy { WriteBehind(this) }
+
+    /**
+     *  是否通过 upsert 写入数据
+     *  需要 user 与 key 的唯一索引，无法创建时退回先查询再写入
+     */
+    val isUpsertEnabled: Boolean
+
+    /**
+     *  是否记录数据的修改时间（updated 列）
+     *  启用后 [AutoDataContainer] 只同步修改过的数据，参考 [getChanges]
+     */
+    val isSyncEnabled: Boolean
+
     init {
         type.tableVar().createTable(dataSource)
+        isUpsertEnabled = createUniqueIndex()
+        isSyncEnabled = createUpdatedColumn()
+    }
+
+    /**
+     *  创建 user 与 key 的唯一索引
+     *  表中已存在重复数据时无法创建
+     */
+    private fun createUniqueIndex(): Boolean {
+        val table = type.tableVar()
+        if (!table.isUpsertSupported(dataSource)) {
+            return false
+        }
+        return try {
+            // SQLite 的索引名称在整个数据库中唯一
+            table.createIndex(dataSource, "uk_${table.name}_user_key", listOf("user", "key"), unique = true)
+            true
+        } catch (ex: Throwable) {
+            warning(
+                """
+                    无法为 ${table.name} 创建 (user, key) 唯一索引，将不会使用 upsert：${ex.message}
+                    Failed to create unique index on (user, key) for ${table.name}, upsert is disabled: ${ex.message}
+                """.t()
+            )
+            false
+        }
+    }
+
+    /**
+     *  为旧的数据表补充 updated 列，并创建 (user, updated) 索引
+     *  表结构中未声明 updated 列时（自定义的 [Type]）不启用
+     */
+    private fun createUpdatedColumn(): Boolean {
+        val table = type.tableVar()
+        val column = table.columns.firstOrNull { (it as? ColumnSQL)?.name == "updated" || (it as? ColumnSQLite)?.name == "updated" } ?: return false
+        return try {
+            dataSource.connection.use { connection ->
+                val exists = connection.metaData.getColumns(connection.catalog, null, table.name, "updated").use { it.next() }
+                if (!exists) {
+                    connection.prepareStatement("ALTER TABLE `${table.name}` ADD COLUMN ${column.query}").use { it.executeUpdate() }
+                }
+            }
+            table.createIndex(dataSource, "idx_${table.name}_user_updated", listOf("user", "updated"))
+            true
+        } catch (ex: Throwable) {
+            warning(
+                """
+                    无法为 ${table.name} 添加 updated 列，将不会使用增量同步：${ex.message}
+                    Failed to add updated column to ${table.name}, incremental sync is disabled: ${ex.message}
+                """.t()
+            )
+            false
+        }
+    }
+
+    /**
+     *  写入的列
+     */
+    private val writeKeys: List<String>
+        get() = if (isSyncEnabled) listOf("user", "key", "value", "updated") else listOf("user", "key", "value")
+
+    /**
+     *  写入的值，启用增量同步时附带修改时间
+     */
+    private fun row(user: String, key: String, value: String, time: Long = System.currentTimeMillis()): Array<Any> {
+        return if (isSyncEnabled) arrayOf(user, key, value, time) else arrayOf(user, key, value)
     }
 
     /**
@@ -43,18 +131,80 @@ class Database(val type: Type, val dataSource: DataSource = type.host().createDa
             remove(user, key)
             return
         }
-        if (get(user, key) == null) {
-            type.tableVar().insert(dataSource, "user", "key", "value") {
-                value(user, key, data)
+        if (isUpsertEnabled) {
+            type.tableVar().upsert(dataSource, writeKeys, listOf("user", "key")) {
+                value(*row(user, key, data))
+            }
+        } else if (get(user, key) == null) {
+            type.tableVar().insert(dataSource, writeKeys) {
+                value(*row(user, key, data))
             }
         } else {
             type.tableVar().update(dataSource) {
                 set("value", data)
+                if (isSyncEnabled) {
+                    set("updated", System.currentTimeMillis())
+                }
                 where("user" eq user and ("key" eq key))
             }
         }
     }
 
+    /**
+     *  在一个事务中批量写入数据
+     *  值为空时转为删除操作
+     *
+     *  @param data (用户, 键) 与值
+     */
+    fun setAll(data: Map<Pair<String, String>, String>) {
+        if (data.isEmpty()) {
+            return
+        }
+        if (!isUpsertEnabled) {
+            data.forEach { (k, v) -> set(k.first, k.second, v) }
+            return
+        }
+        val (removes, updates) = data.entries.partition { it.value.isEmpty() }
+        val time = System.currentTimeMillis()
+        type.tableVar().transaction(dataSource) {
+            if (updates.isNotEmpty()) {
+                upsert(writeKeys, listOf("user", "key")) {
+                    updates.forEach { value(*row(it.key.first, it.key.second, it.value, time)) }
+                }
+            }
+            // 相同的删除语句会合并为一次批量执行
+            removes.forEach { (k, _) ->
+                delete { where("user" eq k.first and ("key" eq k.second)) }
+            }
+        }.getOrThrow()
+    }
+
+    /**
+     *  批量获取多个用户在某一时间之后修改过的数据
+     *  所有用户在同一条语句中查询（每 500 个用户一组），结果只包含修改过的行
+     *
+     *  删除操作不会留下记录，无法通过该方法获取
+     *
+     *  @param users 用户
+     *  @param since 修改时间（毫秒），不包含该时间
+     *  @return 用户与修改过的数据
+     */
+    fun getChanges(users: Collection<String>, since: Long): Map<String, Map<String, String>> {
+        if (!isSyncEnabled) {
+            error("incremental sync is not enabled")
+        }
+        val changes = HashMap<String, MutableMap<String, String>>()
+        users.distinct().chunked(500).forEach { chunk ->
+            type.tableVar().select(dataSource) {
+                rows("user", "key", "value")
+                where("user" inside chunk.toTypedArray<Any>() and ("updated" gt since))
+            }.forEach {
+                changes.computeIfAbsent(getString("user")) { HashMap() }[getString("key")] = getString("value")
+            }
+        }
+        return changes
+    }
+
     /**
      *  查询数据 根据 用户名 与 键
      *  如果数据不存在则返回 null
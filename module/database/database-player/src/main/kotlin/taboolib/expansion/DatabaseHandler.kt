@@ -193,14 +193,14 @@ fun UUID.getPlayerDataContainer(): DataContainer {
  * 释放 UUID 对应的玩家数据容器
  */
 fun UUID.releasePlayerDataContainer() {
-    playerDataContainer.remove(this)
+    playerDataContainer.remove(this)?.flush()
 }
 
 /**
  * 释放玩家的数据容器
  */
 fun ProxyPlayer.releaseDataContainer() {
-    playerDataContainer.remove(uniqueId)
+    playerDataContainer.remove(uniqueId)?.flush()
 }
 
 /**
@@ -47,7 +47,7 @@ class MultipleHandler(
                 cancel()
                 return@submitAsync
             }
-            updateAutoDataContainer()
+            syncAutoDataContainer()
         }
     }
 
@@ -68,7 +68,7 @@ class MultipleHandler(
                 cancel()
                 return@submitAsync
             }
-            updateAutoDataContainer()
+            syncAutoDataContainer()
         }
     }
 
@@ -98,7 +98,7 @@ class MultipleHandler(
      *  移除数据容器
      */
     fun removeDataContainer(user: String) {
-        databaseContainer.remove(user)
+        databaseContainer.remove(user)?.flush()
     }
 
     /**
@@ -122,4 +122,12 @@ class MultipleHandler(
     fun updateAutoDataContainer() {
         autoDataContainer.entries.forEach { it.value.update() }
     }
+
+    /**
+     *  同步所有AutoDataContainer
+     *  数据库启用增量同步时只取出修改过的数据
+     */
+    fun syncAutoDataContainer() {
+        AutoDataContainer.sync(autoDataContainer.values)
+    }
 }
\ No newline at end of file
@@ -28,6 +28,12 @@ class TypeSQL(val host: Host<SQL>, val table: String) : Type() {
         add("value") {
             type(ColumnTypeSQL.VARCHAR, 128)
         }
+        // 修改时间，用于增量同步
+        add("updated") {
+            type(ColumnTypeSQL.BIGINT) {
+                def(0)
+            }
+        }
     }
 
     /**
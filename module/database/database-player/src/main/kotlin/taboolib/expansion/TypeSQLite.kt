@@ -34,6 +34,12 @@ class TypeSQLite(val file: File, val tableName: String? = null) : Type() {
         add("value") {
             type(ColumnTypeSQLite.TEXT)
         }
+        // 修改时间，用于增量同步
+        add("updated") {
+            type(ColumnTypeSQLite.INTEGER) {
+                def(0)
+            }
+        }
     }
 
     /**
@@ -0,0 +1,227 @@
+package taboolib.expansion
+
+import taboolib.common.Inject
+import taboolib.common.LifeCycle
+import taboolib.common.platform.Awake
+import taboolib.common.platform.function.submitAsync
+import taboolib.common.platform.function.warning
+import taboolib.common.util.t
+import taboolib.module.database.use
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.LongAdder
+import taboolib.module.database.Database as ModuleDatabase
+
+/**
+ * 写入缓冲区 Write-Behind
+ *
+ * [DataContainer] 的写入不会立即提交，而是先进入缓冲区，同一 (user, key) 的多次写入只保留最后一次。
+ * 缓冲区每 [flushTick] 刷新一次，所有数据在同一个事务中通过 upsert 批量写入。
+ * 玩家退出（释放容器）与插件卸载时会同步刷新。
+ *
+ * 批量写入失败时逐行重试，成功的数据从缓冲区中移除。
+ * 数据库无法连接时所有数据留在缓冲区中，在下一次刷新时重试；
+ * 数据库可以连接但仍然写入失败的数据（例如超出列长度）最多重试 [maxRetries] 次，之后丢弃并记录。
+ *
+ * @property database 数据库实例
+ */
+class WriteBehind(val database: Database) {
+
+    /** 等待写入的数据 */
+    private val pending = ConcurrentHashMap<Pair<String, String>, String>()
+
+    /** 逐行写入失败的次数 */
+    private val attempts = ConcurrentHashMap<Pair<String, String>, Int>()
+
+    private val flushCount = LongAdder()
+    private val rowCount = LongAdder()
+    private val mergedCount = LongAdder()
+    private val failureCount = LongAdder()
+    private val droppedCount = LongAdder()
+    private val totalTime = LongAdder()
+    private val maxTime = AtomicLong()
+    private val lastTime = AtomicLong()
+
+    /**
+     * 刷新统计
+     *
+     * @param queued 等待写入的数量
+     * @param flushes 刷新次数
+     * @param rows 写入的行数
+     * @param merged 被合并的写入次数
+     * @param failures 失败次数
+     * @param dropped 多次重试后仍然失败而被丢弃的行数
+     * @param averageTime 平均耗时（毫秒）
+     * @param maxTime 最大耗时（毫秒）
+     * @param lastTime 最后一次耗时（毫秒）
+     */
+    data class Statistics(
+        val queued: Int,
+        val flushes: Long,
+        val rows: Long,
+        val merged: Long,
+        val failures: Long,
+        val dropped: Long,
+        val averageTime: Double,
+        val maxTime: Double,
+        val lastTime: Double,
+    )
+
+    init {
+        buffers += this
+    }
+
+    /** 等待写入的数量 */
+    val queued: Int
+        get() = pending.size
+
+    /** 获取刷新统计 */
+    val statistics: Statistics
+        get() {
+            val flushes = flushCount.sum()
+            return Statistics(
+                pending.size,
+                flushes,
+                rowCount.sum(),
+                mergedCount.sum(),
+                failureCount.sum(),
+                droppedCount.sum(),
+                if (flushes == 0L) 0.0 else totalTime.sum() / flushes / 1_000_000.0,
+                maxTime.get() / 1_000_000.0,
+                lastTime.get() / 1_000_000.0
+            )
+        }
+
+    /**
+     * 写入缓冲区
+     * 值为空时在刷新时转为删除操作
+     */
+    fun put(user: String, key: String, value: String) {
+        if (pending.put(user to key, value) != null) {
+            mergedCount.increment()
+        }
+        // 新的值重新计算重试次数
+        attempts.remove(user to key)
+    }
+
+    /**
+     * 同步刷新缓冲区
+     *
+     * @param user 只刷新该用户的数据，为 null 时刷新全部
+     * @return 写入的行数
+     */
+    @Synchronized
+    fun flush(user: String? = null): Int {
+        val data = pending.entries.filter { user == null || it.key.first == user }.associate { it.key to it.value }
+        if (data.isEmpty()) {
+            return 0
+        }
+        val time = System.nanoTime()
+        val written = try {
+            database.setAll(data)
+            data
+        } catch (ex: Throwable) {
+            failureCount.increment()
+            warning(
+                """
+                    批量写入 ${data.size} 条玩家数据失败，将逐行重试：${ex.message}
+                    Failed to flush ${data.size} player data write(s), retrying row by row: ${ex.message}
+                """.t()
+            )
+            flushRows(data)
+        }
+        // 仅移除未被再次修改的数据
+        written.forEach { (k, v) -> if (pending.remove(k, v)) attempts.remove(k) }
+        val cost = System.nanoTime() - time
+        flushCount.increment()
+        rowCount.add(written.size.toLong())
+        totalTime.add(cost)
+        lastTime.set(cost)
+        maxTime.accumulateAndGet(cost) { a, b -> maxOf(a, b) }
+        return written.size
+    }
+
+    /**
+     * 逐行写入，返回写入成功的数据
+     * 数据库可以连接时，失败的行记录一次重试，超过 [maxRetries] 次后丢弃
+     */
+    private fun flushRows(data: Map<Pair<String, String>, String>): Map<Pair<String, String>, String> {
+        val written = HashMap<Pair<String, String>, String>()
+        val failed = HashMap<Pair<String, String>, Throwable>()
+        data.forEach { (k, v) ->
+            try {
+                database.setAll(mapOf(k to v))
+                written[k] = v
+            } catch (ex: Throwable) {
+                failed[k] = ex
+            }
+        }
+        // 全部失败且无法连接数据库，保留所有数据等待下一次刷新
+        if (written.isEmpty() && !isReachable()) {
+            return written
+        }
+        failed.forEach { (k, ex) ->
+            val value = data.getValue(k)
+            val count = attempts.merge(k, 1) { a, b -> a + b }!!
+            if (count >= maxRetries && pending.remove(k, value)) {
+                attempts.remove(k)
+                droppedCount.increment()
+                warning(
+                    """
+                        玩家数据 ${k.first} 的 ${k.second} 在 $count 次重试后仍然写入失败，已丢弃：${ex.message}
+                        Dropped player data write ${k.first}/${k.second} after $count failed attempt(s): ${ex.message}
+                    """.t()
+                )
+            }
+        }
+        return written
+    }
+
+    /**
+     * 数据库是否可以连接
+     */
+    private fun isReachable(): Boolean {
+        return try {
+            database.dataSource.connection.use { it.isValid(5) }
+        } catch (_: Throwable) {
+            false
+        }
+    }
+
+    override fun toString(): String {
+        return "WriteBehind(database=$database, queued=$queued)"
+    }
+
+    @Inject
+    internal companion object {
+
+        /** 刷新间隔 */
+        var flushTick = 20L
+
+        /** 数据库可以连接时，单行数据的最大重试次数 */
+        var maxRetries = 5
+
+        /** 所有缓冲区 */
+        val buffers = CopyOnWriteArrayList<WriteBehind>()
+
+        /** 刷新所有缓冲区 */
+        fun flushAll() {
+            buffers.forEach { it.flush() }
+        }
+
+        @Awake(LifeCycle.ACTIVE)
+        fun schedule() {
+            submitAsync(period = flushTick) { flushAll() }
+        }
+
+        @Awake(LifeCycle.ENABLE)
+        fun registerClose() {
+            // 在连接池关闭之前写入所有等待中的数据
+            ModuleDatabase.prepareClose {
+                playerDataContainer.values.forEach { it.checkUpdate(force = true) }
+                flushAll()
+            }
+        }
+    }
+}
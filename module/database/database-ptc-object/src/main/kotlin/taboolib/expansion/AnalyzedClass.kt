@@ -3,6 +3,9 @@ package taboolib.expansion
 import org.tabooproject.reflex.Reflex.Companion.getProperty
 import taboolib.common.util.t
 import taboolib.common5.*
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.lang.reflect.Modifier
 import java.lang.reflect.Parameter
 import java.sql.ResultSet
 import java.util.*
@@ -82,28 +85,127 @@ class AnalyzedClass private constructor(val clazz: Class<*>) {
         }
         // 获取访问权限
         memberProperties.forEach { it.value.isAccessible = true }
+        primaryConstructor.isAccessible = true
     }
 
+    /** 成员读取方法，类型为 (Object)Object */
+    private val getters = memberProperties.mapValues { (_, field) ->
+        val getter = MethodHandles.lookup().unreflectGetter(field)
+        // 静态字段忽略实例参数
+        (if (Modifier.isStatic(field.modifiers)) MethodHandles.dropArguments(getter, 0, Any::class.java) else getter).asType(OBJECT_GETTER)
+    }
+
+    /** 成员读取方法，与 [members] 一一对应 */
+    private val memberGetters = members.map { getters.getValue(it.propertyName) }.toTypedArray()
+
+    /** 主构造器，类型为 (Object[])Object */
+    private val constructorHandle = MethodHandles.lookup().unreflectConstructor(primaryConstructor)
+        .asSpreader(Array<Any?>::class.java, members.size)
+        .asType(OBJECT_CONSTRUCTOR)
+
+    /** 列读取方法，与 [members] 一一对应 */
+    private val columnReaders = members.map { columnReader(it) }.toTypedArray()
+
     /** 获取主成员值 */
     fun getPrimaryMemberValue(data: Any): Any {
-        val property = memberProperties[primaryMember?.propertyName.toString()] ?: error(
+        val getter = getters[primaryMember?.propertyName.toString()] ?: error(
             """
                 主成员 "$primaryMemberName" 在 $clazz 中未找到。
                 Primary member "$primaryMemberName" not found in $clazz
             """.t()
         )
-        return property.get(data)!!
+        return getter.invoke(data)!!
     }
 
     /** 获取成员值 */
     fun getValue(data: Any, member: AnalyzedClassMember): Any {
-        val property = memberProperties[member.propertyName] ?: error(
+        val getter = getters[member.propertyName] ?: error(
             """
                 成员 "${member.name}" 在 $clazz 中未找到。
                 Member "${member.name}" not found in $clazz
             """.t()
         )
-        return property.get(data)!!
+        return getter.invoke(data)!!
+    }
+
+    /** 获取所有成员值，与 [members] 一一对应 */
+    fun getValues(data: Any): List<Any> {
+        return memberGetters.map { it.invoke(data)!! }
+    }
+
+    /**
+     * 创建行读取器
+     * 同一个查询的所有行共用一个读取器，列的位置只在读取第一行时查找一次
+     */
+    fun <T> reader(): RowReader<T> {
+        return RowReader()
+    }
+
+    /**
+     * 行读取器
+     * 按列的位置读取每个成员，直接作为构造器参数创建实例，不经过 [read] 与 [createInstance]
+     * 存在反序列化方法（[wrapperFunction]）时退回 [read] 与 [createInstance]
+     */
+    inner class RowReader<T> internal constructor() {
+
+        /** 成员所在列的位置 */
+        private var positions: IntArray? = null
+
+        /** 读取当前行 */
+        fun read(result: ResultSet): T {
+            if (wrapperFunction != null) {
+                return createInstance(this@AnalyzedClass.read(result))
+            }
+            val indices = positions ?: IntArray(members.size) { result.findColumn(members[it].name) }.also { positions = it }
+            val args = arrayOfNulls<Any>(members.size)
+            for (i in args.indices) {
+                args[i] = columnReaders[i](result, indices[i])
+            }
+            return try {
+                constructorHandle.invoke(args) as T
+            } catch (ex: Throwable) {
+                error(
+                    """
+                    无法创建 $clazz 实例。(${args.contentToString()})
+                    Failed to create instance for $clazz. (${args.contentToString()})
+                    """.t()
+                )
+            }
+        }
+    }
+
+    /** 获取成员的列读取方法，类型转换在此时确定 */
+    private fun columnReader(member: AnalyzedClassMember): (ResultSet, Int) -> Any? {
+        return when {
+            member.isBoolean -> column { getBoolean(it) }
+            member.isByte -> column { getByte(it) }
+            member.isShort -> column { getShort(it) }
+            member.isInt -> column { getInt(it) }
+            member.isLong -> column { getLong(it) }
+            member.isFloat -> column { getFloat(it) }
+            member.isDouble -> column { getDouble(it) }
+            member.isChar -> column { getInt(it).toChar() }
+            member.isString -> column { getString(it) }
+            member.isUUID -> column { getString(it)?.let { value -> UUID.fromString(value) } }
+            member.isEnum -> {
+                val constants = member.returnType.enumConstants.associateBy { it.toString() }
+                column { getString(it)?.let { value -> constants.getValue(value) } }
+            }
+            else -> {
+                val customType = CustomTypeFactory.getCustomTypeByClass(member.returnType) ?: error(
+                    """
+                    在 $clazz 类中，成员 ${member.name} 的类型 ${member.returnType} 不受支持。
+                    Unsupported type ${member.returnType} for ${member.name} in $clazz
+                    """.t()
+                )
+                column { getObject(it)?.let { value -> customType.deserialize(value) } }
+            }
+        }
+    }
+
+    /** 按位置读取列，列的值为 NULL 时返回 null */
+    private inline fun column(crossinline func: ResultSet.(index: Int) -> Any?): (ResultSet, Int) -> Any? {
+        return { result, index -> result.func(index).takeUnless { result.wasNull() } }
     }
 
     /** 读取数据 */
@@ -180,6 +282,10 @@ class AnalyzedClass private constructor(val clazz: Class<*>) {
 
     companion object {
 
+        private val OBJECT_GETTER = MethodType.methodType(Any::class.java, Any::class.java)
+
+        private val OBJECT_CONSTRUCTOR = MethodType.methodType(Any::class.java, Array<Any?>::class.java)
+
         val cached = ConcurrentHashMap<Class<*>, AnalyzedClass>()
 
         fun of(clazz: Class<*>): AnalyzedClass {
@@ -14,17 +14,20 @@ import javax.sql.DataSource
  */
 class ContainerOperatorImpl(override val table: Table<*, *>, override val dataSource: DataSource) : ContainerOperator() {
 
+    /** 数据库是否支持 upsert */
+    private val isUpsertSupported by lazy { table.isUpsertSupported(dataSource) }
+
     override fun <T> getOne(type: Class<T>, filter: Filter.() -> Unit): T? {
         val typeClass = AnalyzedClass.of(type)
         return table.select(dataSource) {
             limit(1)
             where(filter)
-        }.firstOrNull { typeClass.createInstance(typeClass.read(this)) }
+        }.firstOrNull { typeClass.reader<T>().read(this) }
     }
 
     override fun <T> get(type: Class<T>, filter: Filter.() -> Unit): List<T> {
-        val typeClass = AnalyzedClass.of(type)
-        return table.select(dataSource) { where(filter) }.map { typeClass.createInstance(typeClass.read(this)) }
+        val reader = AnalyzedClass.of(type).reader<T>()
+        return table.select(dataSource) { where(filter) }.map { reader.read(this) }
     }
 
     override fun <T> findOne(type: Class<T>, id: Any, filter: Filter.() -> Unit): T? {
@@ -34,34 +37,37 @@ class ContainerOperatorImpl(override val table: Table<*, *>, override val dataSo
             limit(1)
             where(name eq id.value())
             where(filter)
-        }.firstOrNull { typeClass.createInstance(typeClass.read(this)) }
+        }.firstOrNull { typeClass.reader<T>().read(this) }
     }
 
     override fun <T> find(type: Class<T>, id: Any, filter: Filter.() -> Unit): List<T> {
         val typeClass = AnalyzedClass.of(type)
+        val reader = typeClass.reader<T>()
         val name = typeClass.primaryMemberName ?: error("No primary id found.")
         return table.select(dataSource) {
             where(name eq id.value())
             where(filter)
-        }.map { typeClass.createInstance(typeClass.read(this)) }
+        }.map { reader.read(this) }
     }
 
     override fun <T> sort(type: Class<T>, row: String, limit: Int, filter: Filter.() -> Unit): List<T> {
         val typeClass = AnalyzedClass.of(type)
+        val reader = typeClass.reader<T>()
         return table.select(dataSource) {
             where(filter)
             limit(limit)
             orderBy(row)
-        }.map { typeClass.createInstance(typeClass.read(this)) }
+        }.map { reader.read(this) }
     }
 
     override fun <T> sortDescending(type: Class<T>, row: String, limit: Int, filter: Filter.() -> Unit): List<T> {
         val typeClass = AnalyzedClass.of(type)
+        val reader = typeClass.reader<T>()
         return table.select(dataSource) {
             where(filter)
             limit(limit)
             orderBy(row, Order.Type.DESC)
-        }.map { typeClass.createInstance(typeClass.read(this)) }
+        }.map { reader.read(this) }
     }
 
     override fun update(data: Any, filter: Filter.() -> Unit) {
@@ -70,6 +76,10 @@ class ContainerOperatorImpl(override val table: Table<*, *>, override val dataSo
             error("No mutable field found.")
         }
         val name = typeClass.primaryMemberName ?: error("No primary id found.")
+        // 没有额外条件时，以主成员作为冲突键一次完成插入或更新
+        if (Filter().also(filter).isEmpty() && upsert(data, typeClass, listOf(name))) {
+            return
+        }
         val value = typeClass.getPrimaryMemberValue(data)
         // 检查是否存在
         if (table.find(dataSource) {
@@ -96,6 +106,11 @@ class ContainerOperatorImpl(override val table: Table<*, *>, override val dataSo
         if (typeClass.members.none { !it.isFinal }) {
             error("No mutable field found.")
         }
+        // 以主成员与键成员作为冲突键一次完成插入或更新
+        val name = typeClass.primaryMemberName ?: error("No primary id found.")
+        if (upsert(data, typeClass, listOf(name) + typeClass.members.filter { it.isKey && !it.isPrimary }.map { it.name })) {
+            return
+        }
         update(data) {
             typeClass.members.filter { it.isKey }.forEach { member ->
                 member.name eq typeClass.getValue(data, member).value()
@@ -103,6 +118,22 @@ class ContainerOperatorImpl(override val table: Table<*, *>, override val dataSo
         }
     }
 
+    /**
+     * 冲突键恰好构成唯一索引时，通过 upsert 写入并返回 true
+     * 否则返回 false，由调用者先查询再写入
+     */
+    private fun upsert(data: Any, typeClass: AnalyzedClass, conflictKeys: List<String>): Boolean {
+        if (!isUpsertSupported || !table.isUnique(conflictKeys)) {
+            return false
+        }
+        table.upsert(dataSource, typeClass.members.map { it.name }, conflictKeys) {
+            values(typeClass.getValues(data).map { it.value() })
+            // 仅更新可变字段
+            update(typeClass.members.filter { !it.isFinal }.map { it.name })
+        }
+        return true
+    }
+
     override fun insert(dataList: List<Any>) {
         if (dataList.isEmpty()) {
             return
@@ -110,7 +141,7 @@ class ContainerOperatorImpl(override val table: Table<*, *>, override val dataSo
         val typeClass = AnalyzedClass.of(dataList.first().javaClass)
         table.insert(dataSource, typeClass.members.map { it.name }) {
             dataList.forEach { data ->
-                values(typeClass.members.map { member -> typeClass.getValue(data, member).value() })
+                values(typeClass.getValues(data).map { it.value() })
             }
         }
     }
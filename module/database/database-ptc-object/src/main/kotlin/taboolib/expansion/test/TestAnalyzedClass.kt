@@ -0,0 +1,104 @@
+package taboolib.expansion.test
+
+import taboolib.common.Test
+import taboolib.expansion.AnalyzedClass
+import taboolib.module.database.getHost
+import taboolib.module.database.use
+import java.io.File
+import java.sql.ResultSet
+import java.util.*
+import javax.sql.DataSource
+
+/**
+ * TabooLib
+ * taboolib.expansion.test.TestAnalyzedClass
+ *
+ * @author agent
+ * @since 2026/10/19 12:58
+ */
+object TestAnalyzedClass : Test() {
+
+    /** 表中的行数 */
+    const val ROWS = 10000
+
+    data class Sample(val uuid: UUID, val name: String, val level: Int, val money: Double, val lastLogin: Long)
+
+    override fun check(): List<Result> {
+        val analyzed = AnalyzedClass.of(Sample::class.java)
+        val reflective: (ResultSet) -> Sample = { analyzed.createInstance(analyzed.read(it)) }
+        val result = arrayListOf<Result>()
+        withSamples { dataSource, samples ->
+            // 与反射读取的结果一致
+            result += sandbox("Database:AnalyzedClass.reader()") {
+                val reader = analyzed.reader<Sample>()
+                check(selectAll(dataSource) { reader.read(it) } == samples)
+                check(selectAll(dataSource, reflective) == samples)
+            }
+            // 按位置读取并通过 MethodHandle 创建实例，与按列名读取并通过反射创建实例对比
+            result += benchmark(
+                "Database:AnalyzedClass $ROWS rows", 20, mapOf(
+                    "reader" to Runnable {
+                        val reader = analyzed.reader<Sample>()
+                        selectAll(dataSource) { reader.read(it) }
+                    },
+                    "reflective" to Runnable { selectAll(dataSource, reflective) }
+                )
+            )
+        }
+        return result
+    }
+
+    /**
+     * 读取所有行
+     */
+    private fun <T> selectAll(dataSource: DataSource, mapper: (ResultSet) -> T): List<T> {
+        return dataSource.connection.use { connection ->
+            connection.prepareStatement("SELECT * FROM `sample` ORDER BY `level`").use { statement ->
+                statement.executeQuery().use { result ->
+                    val list = ArrayList<T>(ROWS)
+                    while (result.next()) {
+                        list += mapper(result)
+                    }
+                    list
+                }
+            }
+        }
+    }
+
+    /**
+     * 在临时 SQLite 数据库中写入测试数据，结束后关闭连接池并删除文件
+     */
+    private fun withSamples(func: (dataSource: DataSource, samples: List<Sample>) -> Unit) {
+        val file = File.createTempFile("taboolib-test", ".db")
+        try {
+            val dataSource = file.getHost().createDataSource(autoRelease = false)
+            try {
+                val samples = List(ROWS) { Sample(UUID.randomUUID(), "player$it", it, it * 1.5, System.currentTimeMillis() - it) }
+                dataSource.connection.use { connection ->
+                    connection.prepareStatement(
+                        "CREATE TABLE `sample` (`uuid` TEXT, `name` TEXT, `level` INTEGER, `money` REAL, `last_login` INTEGER)"
+                    ).use { it.executeUpdate() }
+                    connection.autoCommit = false
+                    connection.prepareStatement("INSERT INTO `sample` VALUES (?, ?, ?, ?, ?)").use { statement ->
+                        samples.forEach {
+                            statement.setString(1, it.uuid.toString())
+                            statement.setString(2, it.name)
+                            statement.setInt(3, it.level)
+                            statement.setDouble(4, it.money)
+                            statement.setLong(5, it.lastLogin)
+                            statement.addBatch()
+                        }
+                        statement.executeBatch()
+                    }
+                    connection.commit()
+                    connection.autoCommit = true
+                }
+                func(dataSource, samples)
+            } finally {
+                (dataSource as AutoCloseable).close()
+            }
+        } finally {
+            listOf("", "-wal", "-shm", "-journal").forEach { File(file.path + it).delete() }
+        }
+    }
+}
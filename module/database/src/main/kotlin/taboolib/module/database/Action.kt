@@ -27,4 +27,11 @@ interface Action : Attributes {
      * 执行上面那个回调函数（内部用）
      */
     fun callFinally(preparedStatement: PreparedStatement, connection: Connection)
+
+    /**
+     * 是否插入了执行后回调函数
+     * 带有回调函数的行为需要单独执行，不会被合并为批量执行
+     */
+    val hasFinally: Boolean
+        get() = false
 }
\ No newline at end of file
@@ -55,4 +55,7 @@ abstract class ActionFilterable : Filterable(), Action {
     override fun callFinally(preparedStatement: PreparedStatement, connection: Connection) {
         this.finallyCallback?.invoke(preparedStatement, connection)
     }
+
+    override val hasFinally: Boolean
+        get() = finallyCallback != null
 }
\ No newline at end of file
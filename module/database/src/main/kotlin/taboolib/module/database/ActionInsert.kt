@@ -20,6 +20,10 @@ class ActionInsert(val table: String, val keys: Array<String>) : Action {
     /** 重复时更新 */
     private var duplicateUpdate = ArrayList<UpdateOperation>()
 
+    /** 是否需要返回自增键 */
+    var isReturnGeneratedKeys = false
+        private set
+
     /** 语句 */
     override val query: String
         get() = Statement("INSERT INTO")
@@ -45,6 +49,40 @@ class ActionInsert(val table: String, val keys: Array<String>) : Action {
             return el
         }
 
+    /** 插入的行数 */
+    val rows: Int
+        get() = values.size
+
+    /** 单行语句，用于批量执行 */
+    val batchQuery: String
+        get() = Statement("INSERT INTO")
+            .addSegment(table.asFormattedColumnName())
+            .addSegmentIfTrue(keys.isNotEmpty()) {
+                addKeys(keys)
+            }
+            .addSegmentIfTrue(values.isNotEmpty()) {
+                addSegment("VALUES")
+                addValue(values.first())
+            }
+            .addSegmentIfTrue(duplicateUpdate.isNotEmpty()) {
+                addSegment("ON DUPLICATE KEY UPDATE")
+                addOperations(duplicateUpdate)
+            }.build()
+
+    /** 每一行对应的元素，用于批量执行 */
+    val batchElements: List<List<Any>>
+        get() {
+            val update = duplicateUpdate.mapNotNull { it.value }
+            return values.map { it.toList() + update }
+        }
+
+    /**
+     * 是否可以批量执行
+     * 需要返回自增键或各行长度不一致时只能作为单条语句执行
+     */
+    val isBatchable: Boolean
+        get() = values.isNotEmpty() && !isReturnGeneratedKeys && values.all { it.size == values.first().size }
+
     /** 插入值 */
     fun value(vararg args: Any) {
         values.add(arrayOf(*args))
@@ -65,14 +103,27 @@ class ActionInsert(val table: String, val keys: Array<String>) : Action {
         duplicateUpdate = DuplicateUpdateBehavior().also(func).updateOperations
     }
 
+    /** 返回自增键，可在 [onFinally] 中通过 `generatedKeys` 读取 */
+    fun returnGeneratedKeys() {
+        isReturnGeneratedKeys = true
+    }
+
+    /**
+     * 插入执行后回调函数
+     * 插入语句的回调通常用于读取自增键，因此会同时启用 [returnGeneratedKeys]
+     */
     override fun onFinally(onFinally: PreparedStatement.(Connection) -> Unit) {
         this.finallyCallback = onFinally
+        this.isReturnGeneratedKeys = true
     }
 
     override fun callFinally(preparedStatement: PreparedStatement, connection: Connection) {
         this.finallyCallback?.invoke(preparedStatement, connection)
     }
 
+    override val hasFinally: Boolean
+        get() = finallyCallback != null
+
     class DuplicateUpdateBehavior {
 
         val updateOperations = ArrayList<UpdateOperation>()
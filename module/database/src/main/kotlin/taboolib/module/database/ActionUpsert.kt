@@ -0,0 +1,111 @@
+package taboolib.module.database
+
+import java.sql.Connection
+import java.sql.PreparedStatement
+
+/**
+ * 一个插入或更新行为
+ *
+ * 根据数据库类型生成：
+ * - MySQL：`INSERT ... ON DUPLICATE KEY UPDATE`
+ * - SQLite：`INSERT ... ON CONFLICT (...) DO UPDATE`（需要 3.24.0 及以上版本）
+ *
+ * 冲突键必须存在唯一索引（或主键），否则数据库无法判断是否重复，只会插入新的数据。
+ *
+ * @param keys 插入的列
+ * @param conflictKeys 判断重复的列
+ * @param isSQLite 是否使用 SQLite 语法
+ * @author agent
+ * @since 2026/10/19 12:33
+ */
+class ActionUpsert(val table: String, val keys: Array<String>, val conflictKeys: Array<String>, val isSQLite: Boolean) : Action {
+
+    /** 该行为执行完毕后的回调 */
+    private var finallyCallback: (PreparedStatement.(Connection) -> Unit)? = null
+
+    /** 插入值 */
+    private val values = ArrayList<Array<Any>>()
+
+    /** 重复时更新的列，默认为冲突键以外的所有列 */
+    private var updateKeys = keys.filter { it !in conflictKeys }
+
+    /** 语句 */
+    override val query: String
+        get() = createQuery(values.size)
+
+    /** 元素 */
+    override val elements: List<Any>
+        get() = values.flatMap { it.toList() }
+
+    /** 单行语句，用于批量执行 */
+    val batchQuery: String
+        get() = createQuery(1)
+
+    /** 每一行对应的元素，用于批量执行 */
+    val batchElements: List<List<Any>>
+        get() = values.map { it.toList() }
+
+    /** 是否可以批量执行 */
+    val isBatchable: Boolean
+        get() = values.isNotEmpty() && finallyCallback == null && values.all { it.size == keys.size }
+
+    /** 插入值 */
+    fun value(vararg args: Any) {
+        values.add(arrayOf(*args))
+    }
+
+    /** 插入值 */
+    fun values(args: Array<Any>) {
+        values.add(args)
+    }
+
+    /** 插入值 */
+    fun values(args: List<Any>) {
+        values.add(args.toTypedArray())
+    }
+
+    /** 设置重复时更新的列 */
+    fun update(vararg keys: String) {
+        updateKeys = keys.toList()
+    }
+
+    /** 设置重复时更新的列 */
+    fun update(keys: List<String>) {
+        updateKeys = keys
+    }
+
+    override fun onFinally(onFinally: PreparedStatement.(Connection) -> Unit) {
+        this.finallyCallback = onFinally
+    }
+
+    override fun callFinally(preparedStatement: PreparedStatement, connection: Connection) {
+        this.finallyCallback?.invoke(preparedStatement, connection)
+    }
+
+    override val hasFinally: Boolean
+        get() = finallyCallback != null
+
+    private fun createQuery(rows: Int): String {
+        val statement = Statement("INSERT INTO")
+            .addSegment(table.asFormattedColumnName())
+            .addKeys(keys)
+            .addSegment("VALUES")
+            .addSegment((0 until rows).joinToString { "(${keys.joinToString { "?" }})" })
+        if (isSQLite) {
+            statement.addSegment("ON CONFLICT")
+            statement.addKeys(conflictKeys)
+            if (updateKeys.isEmpty()) {
+                statement.addSegment("DO NOTHING")
+            } else {
+                statement.addSegment("DO UPDATE SET")
+                statement.addSegment(updateKeys.joinToString { "${it.asFormattedColumnName()} = excluded.${it.asFormattedColumnName()}" })
+            }
+        } else {
+            statement.addSegment("ON DUPLICATE KEY UPDATE")
+            // 没有需要更新的列时保持原值，等同于忽略
+            val update = updateKeys.ifEmpty { conflictKeys.take(1) }
+            statement.addSegment(update.joinToString { "${it.asFormattedColumnName()} = VALUES(${it.asFormattedColumnName()})" })
+        }
+        return statement.build()
+    }
+}
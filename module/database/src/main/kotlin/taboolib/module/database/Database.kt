@@ -29,6 +29,24 @@ object Database {
     @Config("datasource.yml")
     lateinit var settingsFile: Configuration
 
+    /**
+     * SQLite 默认的 PRAGMA，由驱动在连接时执行
+     * 配置文件中的 SQLiteSettings.Pragma 会覆盖同名的设置，因此不包含该节点的旧配置文件同样生效
+     */
+    val sqlitePragma = linkedMapOf(
+        // 读写互不阻塞
+        "journal_mode" to "WAL",
+        // WAL 模式下 NORMAL 是安全的，避免每次提交都同步到磁盘
+        "synchronous" to "NORMAL",
+        // 等待锁的时间（毫秒），超时后才会返回 SQLITE_BUSY
+        "busy_timeout" to "5000",
+        // 内存映射大小（256 MB）
+        "mmap_size" to "268435456",
+        // 负数的单位为 KiB（每个连接 16 MB 页缓存）
+        "cache_size" to "-16000",
+        "temp_store" to "MEMORY",
+    )
+
     /**
      * 创建一个关闭数据库连接的回调函数
      */
@@ -43,6 +61,23 @@ object Database {
         return HikariDataSource(hikariConfig ?: createHikariConfig(host))
     }
 
+    /**
+     * 创建一个读写分离的数据库连接池
+     * 只读的工作空间分配到副本，写入与事务在主库中执行
+     *
+     * @param host 主库
+     * @param replicas 只读副本
+     * @param policy 副本数据的延迟策略
+     * @param autoRelease 是否在插件卸载时关闭主库与所有副本的连接池
+     */
+    fun createDataSource(host: Host<*>, replicas: List<Host<*>>, policy: RoutingDataSource.StalenessPolicy = RoutingDataSource.StalenessPolicy.readAfterWrite(1000), autoRelease: Boolean = true): DataSource {
+        val dataSource = RoutingDataSource(createDataSource(host), replicas.map { createDataSource(it) }, policy)
+        if (autoRelease) {
+            prepareClose { dataSource.close() }
+        }
+        return dataSource
+    }
+
     /**
      * 不使用配置文件创建一个数据库连接池
      */
@@ -58,6 +93,21 @@ object Database {
         return HikariDataSource(config)
     }
 
+    /**
+     * 驱动是否会将批量执行改写为一条多行语句
+     * 仅 MySQL 在启用 rewriteBatchedStatements 时改写，连接参数（[HostSQL.flags]）优先于配置文件中的 DataSourceProperty
+     */
+    fun isBatchRewritten(host: Host<*>): Boolean {
+        if (host !is HostSQL) {
+            return false
+        }
+        val flag = host.flags.firstOrNull { it.startsWith("rewriteBatchedStatements=", ignoreCase = true) }
+        if (flag != null) {
+            return flag.substringAfter('=').toBoolean()
+        }
+        return settingsFile.getBoolean("DefaultSettings.DataSourceProperty.rewriteBatchedStatements", false)
+    }
+
     /**
      * 创建一个 Hikari 配置
      */
@@ -72,6 +122,12 @@ object Database {
             }
             is HostSQLite -> {
                 config.driverClassName = "org.sqlite.JDBC"
+                // SQLite 专用设置（WAL、同步模式、mmap 等），由驱动在连接时执行
+                val pragma = LinkedHashMap(sqlitePragma)
+                settingsFile.getConfigurationSection("SQLiteSettings.Pragma")?.getKeys(false)?.forEach { key ->
+                    settingsFile.getString("SQLiteSettings.Pragma.$key")?.let { pragma[key] = it }
+                }
+                pragma.forEach { (key, value) -> config.addDataSourceProperty(key, value) }
             }
             else -> {
                 error("Unsupported host: $host")
@@ -0,0 +1,271 @@
+package taboolib.module.database
+
+import com.zaxxer.hikari.HikariDataSource
+import taboolib.common.platform.function.warning
+import java.util.concurrent.*
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.LongAdder
+import javax.sql.DataSource
+
+/**
+ * 数据源专用的异步执行器
+ *
+ * 每个数据源拥有独立的线程池，线程数与连接池大小一致，线程不会因等待连接而阻塞。
+ * 等待队列有上限，队列已满时根据 [RejectionPolicy] 处理新任务。
+ *
+ * ```
+ * DatabaseExecutor.of(dataSource).submit {
+ *     table.select(dataSource) { where("user" eq user) }.map { getString("value") }
+ * }.thenAccept { values -> ... }
+ * ```
+ *
+ * 通常通过 [Table.selectAsync]、[Table.workspaceAsync] 等方法间接使用。
+ * SQLite 数据源的写入会交给 [SQLiteWriter] 合并执行，查询仍然在线程池中并行。
+ *
+ * @author agent
+ * @since 2026/10/19 12:34
+ */
+class DatabaseExecutor(val threads: Int, val queueSize: Int, val rejectionPolicy: RejectionPolicy, val writer: SQLiteWriter? = null) {
+
+    /**
+     * 队列已满时的处理方式
+     */
+    enum class RejectionPolicy {
+
+        /** 新任务失败（RejectedExecutionException） */
+        ABORT,
+
+        /** 在调用者线程中执行新任务 */
+        CALLER_RUNS,
+
+        /** 最早等待的任务失败，新任务进入队列 */
+        DISCARD_OLDEST
+    }
+
+    /**
+     * 执行统计
+     *
+     * @param queued 等待中的任务数量
+     * @param active 执行中的任务数量
+     * @param completed 完成的任务数量
+     * @param failed 执行失败的任务数量
+     * @param rejected 被拒绝的任务数量
+     * @param averageWait 平均等待时间（毫秒）
+     * @param maxWait 最大等待时间（毫秒）
+     * @param averageTime 平均执行时间（毫秒）
+     * @param maxTime 最大执行时间（毫秒）
+     */
+    data class Statistics(
+        val queued: Int,
+        val active: Int,
+        val completed: Long,
+        val failed: Long,
+        val rejected: Long,
+        val averageWait: Double,
+        val maxWait: Double,
+        val averageTime: Double,
+        val maxTime: Double,
+    )
+
+    private val executor = ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, ArrayBlockingQueue(queueSize), object : ThreadFactory {
+        val index = AtomicInteger()
+        override fun newThread(r: Runnable): Thread {
+            return Thread(r, "TDatabaseExecutor-${index.incrementAndGet()}").apply { isDaemon = true }
+        }
+    }).apply { allowCoreThreadTimeOut(true) }
+
+    private val completedCount = LongAdder()
+    private val failedCount = LongAdder()
+    private val rejectedCount = LongAdder()
+    private val totalWait = LongAdder()
+    private val totalTime = LongAdder()
+    private val maxWait = AtomicLong()
+    private val maxTime = AtomicLong()
+
+    /**
+     * 获取执行统计
+     */
+    val statistics: Statistics
+        get() {
+            val completed = completedCount.sum()
+            val executed = completed + failedCount.sum()
+            return Statistics(
+                executor.queue.size,
+                executor.activeCount,
+                completed,
+                failedCount.sum(),
+                rejectedCount.sum(),
+                if (executed == 0L) 0.0 else totalWait.sum() / executed / 1_000_000.0,
+                maxWait.get() / 1_000_000.0,
+                if (executed == 0L) 0.0 else totalTime.sum() / executed / 1_000_000.0,
+                maxTime.get() / 1_000_000.0
+            )
+        }
+
+    /** 等待中的任务数量 */
+    val queued: Int
+        get() = executor.queue.size
+
+    /**
+     * 提交任务
+     */
+    fun <T> submit(task: () -> T): CompletableFuture<T> {
+        val job = Job(task)
+        try {
+            executor.execute(job)
+        } catch (ex: RejectedExecutionException) {
+            reject(job, ex)
+        }
+        return job.future
+    }
+
+    /**
+     * 提交写入，返回工作空间 `run()` 的结果
+     * 存在 [writer] 时由其合并执行，否则与 [submit] 相同
+     */
+    fun write(table: Table<*, *>, dataSource: DataSource, func: ExecutableSource.() -> Unit): CompletableFuture<Int> {
+        return writer?.submit(table, func) ?: submit { table.workspace(dataSource, func).run() }
+    }
+
+    /**
+     * 关闭执行器，等待已提交的任务完成
+     */
+    fun shutdown(timeout: Long = 5000) {
+        writer?.shutdown(timeout)
+        executor.shutdown()
+        try {
+            if (!executor.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+                warning("Database executor did not finish ${executor.queue.size + executor.activeCount} task(s) in ${timeout}ms.")
+                executor.shutdownNow().forEach { (it as? Job<*>)?.future?.completeExceptionally(RejectedExecutionException("executor is shut down")) }
+            }
+        } catch (_: InterruptedException) {
+            Thread.currentThread().interrupt()
+        }
+    }
+
+    private fun reject(job: Job<*>, ex: RejectedExecutionException) {
+        rejectedCount.increment()
+        if (executor.isShutdown) {
+            job.future.completeExceptionally(ex)
+            return
+        }
+        when (rejectionPolicy) {
+            RejectionPolicy.ABORT -> job.future.completeExceptionally(ex)
+            RejectionPolicy.CALLER_RUNS -> job.run()
+            RejectionPolicy.DISCARD_OLDEST -> {
+                (executor.queue.poll() as? Job<*>)?.future?.completeExceptionally(RejectedExecutionException("discarded by a newer task"))
+                try {
+                    executor.execute(job)
+                } catch (again: RejectedExecutionException) {
+                    job.future.completeExceptionally(again)
+                }
+            }
+        }
+    }
+
+    private inner class Job<T>(val task: () -> T) : Runnable {
+
+        val future = CompletableFuture<T>()
+
+        val submitTime = System.nanoTime()
+
+        override fun run() {
+            // 已被取消或丢弃
+            if (future.isDone) {
+                return
+            }
+            val start = System.nanoTime()
+            val wait = start - submitTime
+            totalWait.add(wait)
+            maxWait.accumulateAndGet(wait) { a, b -> maxOf(a, b) }
+            try {
+                future.complete(task())
+                completedCount.increment()
+            } catch (ex: Throwable) {
+                future.completeExceptionally(ex)
+                failedCount.increment()
+            } finally {
+                val cost = System.nanoTime() - start
+                totalTime.add(cost)
+                maxTime.accumulateAndGet(cost) { a, b -> maxOf(a, b) }
+            }
+        }
+    }
+
+    companion object {
+
+        private val executors = ConcurrentHashMap<DataSource, DatabaseExecutor>()
+
+        /**
+         * 获取数据源的执行器，不存在时根据配置文件创建
+         * 线程数与连接池大小一致
+         */
+        fun of(dataSource: DataSource): DatabaseExecutor {
+            return executors.computeIfAbsent(dataSource) {
+                val settings = Database.settingsFile
+                val threads = poolSize(dataSource) ?: settings.getInt("DefaultSettings.MaximumPoolSize", 10)
+                val queueSize = settings.getInt("Executor.QueueSize", 1024)
+                val policy = try {
+                    RejectionPolicy.valueOf(settings.getString("Executor.RejectionPolicy", "ABORT")!!.uppercase())
+                } catch (_: IllegalArgumentException) {
+                    RejectionPolicy.ABORT
+                }
+                // SQLite 使用单线程写入队列
+                val writer = if (isSQLite(dataSource) && settings.getBoolean("SQLiteSettings.Writer.Enable", true)) {
+                    SQLiteWriter(dataSource, settings.getInt("SQLiteSettings.Writer.MaxBatchSize", 256).coerceAtLeast(1), queueSize.coerceAtLeast(1))
+                } else {
+                    null
+                }
+                DatabaseExecutor(threads.coerceAtLeast(1), queueSize.coerceAtLeast(1), policy, writer).also { executor ->
+                    // 连接池关闭后移除执行器，不必等到插件卸载
+                    writer?.onClose = Runnable {
+                        if (executors.remove(dataSource, executor)) {
+                            executor.shutdown()
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * 是否为 SQLite 数据源
+         */
+        private fun isSQLite(dataSource: DataSource): Boolean {
+            return (dataSource as? HikariDataSource)?.jdbcUrl?.startsWith("jdbc:sqlite:") == true
+        }
+
+        /**
+         * 获取连接池大小，读写分离时为主库与所有副本之和
+         */
+        private fun poolSize(dataSource: DataSource): Int? {
+            return when (dataSource) {
+                is HikariDataSource -> dataSource.maximumPoolSize
+                is RoutingDataSource -> (listOf(dataSource.primary) + dataSource.replicas).sumOf { poolSize(it) ?: 0 }.takeIf { it > 0 }
+                else -> null
+            }
+        }
+
+        /**
+         * 为数据源指定执行器
+         */
+        fun register(dataSource: DataSource, executor: DatabaseExecutor) {
+            executors.put(dataSource, executor)?.shutdown()
+        }
+
+        /**
+         * 关闭数据源的执行器
+         */
+        fun shutdown(dataSource: DataSource) {
+            executors.remove(dataSource)?.shutdown()
+        }
+
+        /**
+         * 关闭所有执行器
+         */
+        internal fun shutdownAll() {
+            executors.values.forEach { it.shutdown() }
+            executors.clear()
+        }
+    }
+}
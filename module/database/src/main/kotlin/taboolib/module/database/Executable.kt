@@ -20,4 +20,14 @@ interface Executable<T> {
 
     /** 执行函数 */
     fun <C> invoke(func: T.() -> C): C
+
+    /** 可以逐行读取结果的查询 */
+    interface Streamable : Executable<ResultSet> {
+
+        /**
+         * 执行查询并返回未关闭的结果集
+         * 结果集与其所属语句由调用者关闭（见 [ResultCursor]）
+         */
+        fun open(fetchSize: Int): ResultSet
+    }
 }
\ No newline at end of file
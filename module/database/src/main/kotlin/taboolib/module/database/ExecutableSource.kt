@@ -2,6 +2,7 @@ package taboolib.module.database
 
 import taboolib.common.platform.function.warning
 import taboolib.common.util.unsafeLazy
+import java.sql.Connection
 import java.sql.PreparedStatement
 import java.sql.ResultSet
 import java.sql.SQLException
@@ -15,14 +16,53 @@ import javax.sql.DataSource
 @Suppress("SqlSourceToSinkFlow")
 open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource, val transaction: Boolean) {
 
+    /**
+     * 单独执行的更新语句（[executeUpdate]，包括带有 onFinally 的更新与删除）所使用的自增键策略，默认返回自增键
+     * 插入语句通过 [ActionInsert.returnGeneratedKeys] 或 [ActionInsert.onFinally] 单独声明，查询与批量执行的语句不返回自增键
+     */
     var autoGeneratedKeys = Statement.RETURN_GENERATED_KEYS
 
     /** 结果处理器 */
     internal val processors = ArrayList<ResultProcessor>()
 
+    /** 预编译语句缓存，以语句和自增键策略为键，随连接一同关闭 */
+    private val statements = HashMap<Pair<String, Int>, PreparedStatement>()
+
+    /**
+     * 是否只包含查询语句
+     * 使用 [RoutingDataSource] 时，只读的工作空间会分配到只读副本
+     */
+    var isReadOnly = !transaction
+        private set
+
+    /**
+     * 外部提供的连接（例如 [SQLiteWriter] 合并写入时使用的事务连接）
+     * 该连接不会在 [close] 中关闭
+     */
+    internal var sharedConnection: Connection? = null
+
+    /** 连接是否来自只读副本 */
+    private var isReplicaConnection = false
+
+    /** 连接是否为读写分离数据源的主库写入连接 */
+    private var isPrimaryWriteConnection = false
+
+    /**
+     * 驱动是否会将批量执行改写为一条多行语句（见 [Database.isBatchRewritten]）
+     * 未改写时批量执行的每一行仍是一次单独的执行
+     */
+    val isBatchRewritten by unsafeLazy { Database.isBatchRewritten(table.host) }
+
     /** 数据库连接 */
     internal val connection by unsafeLazy {
-        dataSource.connection.also { connection ->
+        val source = dataSource
+        val connection = when {
+            sharedConnection != null -> sharedConnection!!
+            source !is RoutingDataSource -> source.connection
+            isReadOnly -> source.getReadConnection().also { isReplicaConnection = true }
+            else -> source.getWriteConnection().also { isPrimaryWriteConnection = true }
+        }
+        connection.also { connection ->
             if (transaction) {
                 connection.autoCommit = false
             }
@@ -32,6 +72,7 @@ open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource,
     /** 创建表 */
     open fun createTable(checkExists: Boolean = true) {
         if (table.name.isBlank()) error("Table name is blank")
+        markWrite()
         executeUpdate(table.generateCreateQuery(checkExists))
         // 创建表的同时创建索引
         table.indices.forEach { createIndex(it) }
@@ -40,6 +81,7 @@ open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource,
     /** 创建索引 */
     open fun createIndex(index: Index) {
         if (table.name.isBlank()) error("Table name is blank")
+        markWrite()
         table.generateCreateIndexQuery(index)?.also { executeUpdate(it) }
     }
 
@@ -49,38 +91,95 @@ open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource,
         return executeQuery(action.query, action)
     }
 
-    /** 更新数据 */
+    /**
+     * 更新数据
+     * 连续的相同更新语句会被合并为一次批量执行
+     */
     open fun update(func: ActionUpdate.() -> Unit = {}): ResultProcessor {
         val action = ActionUpdate(table.name).also(func)
-        return executeUpdate(action.query, action)
+        return if (action.hasFinally) executeUpdate(action.query, action) else executeBatch(action.query, listOf(action.elements))
     }
 
-    /** 删除数据 */
+    /**
+     * 删除数据
+     * 连续的相同删除语句会被合并为一次批量执行
+     */
     open fun delete(func: ActionDelete.() -> Unit = {}): ResultProcessor {
         val action = ActionDelete(table.name).also(func)
-        return executeUpdate(action.query, action)
+        return if (action.hasFinally) executeUpdate(action.query, action) else executeBatch(action.query, listOf(action.elements))
     }
 
     /** 插入数据 */
     open fun insert(vararg keys: String, func: ActionInsert.() -> Unit = {}): ResultProcessor {
-        val action = ActionInsert(table.name, arrayOf(*keys)).also(func)
-        return executeUpdate(action.query, action)
+        return insert(ActionInsert(table.name, arrayOf(*keys)).also(func))
     }
 
     /** 插入数据 */
     open fun insert(keys: List<String>, func: ActionInsert.() -> Unit = {}): ResultProcessor {
-        val action = ActionInsert(table.name, keys.toTypedArray()).also(func)
-        return executeUpdate(action.query, action)
+        return insert(ActionInsert(table.name, keys.toTypedArray()).also(func))
+    }
+
+    /**
+     * 插入数据
+     * 驱动会改写批量执行（[isBatchRewritten]）且不需要返回自增键时，多行插入按单行语句批量执行，
+     * 否则作为一条多行语句执行，只需要一次执行
+     */
+    open fun insert(action: ActionInsert): ResultProcessor {
+        return if (isBatchRewritten && action.isBatchable) executeBatch(action.batchQuery, action.batchElements) else executeUpdate(action.query, action)
+    }
+
+    /**
+     * 插入或更新数据
+     * 与 [insert] 相同，驱动会改写批量执行时多行数据按单行语句批量执行
+     *
+     * @param keys 插入的列
+     * @param conflictKeys 判断重复的列，需要存在唯一索引
+     */
+    open fun upsert(keys: List<String>, conflictKeys: List<String>, func: ActionUpsert.() -> Unit = {}): ResultProcessor {
+        val action = ActionUpsert(table.name, keys.toTypedArray(), conflictKeys.toTypedArray(), table.host is HostSQLite).also(func)
+        return if (isBatchRewritten && action.isBatchable) executeBatch(action.batchQuery, action.batchElements) else executeUpdate(action.query, action)
+    }
+
+    /**
+     * 获取预编译语句
+     * 同一个连接中相同的语句只会预编译一次
+     */
+    open fun prepareStatement(query: String, autoGeneratedKeys: Int = Statement.NO_GENERATED_KEYS): PreparedStatement {
+        val key = query to autoGeneratedKeys
+        val cached = statements[key]
+        if (cached != null && !cached.isClosed) {
+            cached.clearParameters()
+            return cached
+        }
+        return connection.prepareStatement(query, autoGeneratedKeys).also { statements[key] = it }
     }
 
     /** 执行查询语句 */
     open fun executeQuery(query: String, action: Action? = null): ResultProcessor {
-        return ResultProcessor(query, object : Executable<ResultSet> {
+        return ResultProcessor(query, object : Executable.Streamable {
             override fun <C> invoke(func: ResultSet.() -> C): C {
                 return try {
-                    connection.prepareStatement(query, autoGeneratedKeys).use { statement ->
-                        action?.elements?.forEachIndexed { index, any -> statement.setObject(index + 1, any) }
-                        statement.executeQuery().use { func(it) }.also { action?.callFinally(statement, connection) }
+                    val statement = prepareStatement(query)
+                    action?.elements?.let { statement.setParameters(it) }
+                    measure(query, { action?.elements }) { statement.executeQuery() }.use { func(it) }.also { action?.callFinally(statement, connection) }
+                } catch (ex: SQLException) {
+                    warning("Query: $query")
+                    warning("Parameters (${action?.elements?.size ?: 0}): ${action?.elements}")
+                    throw ex
+                }
+            }
+
+            override fun open(fetchSize: Int): ResultSet {
+                return try {
+                    // 逐行读取的结果集会占用语句，因此不使用缓存
+                    val statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
+                    try {
+                        statement.fetchSize = streamingFetchSize(fetchSize)
+                        action?.elements?.let { statement.setParameters(it) }
+                        measure(query, { action?.elements }) { statement.executeQuery() }
+                    } catch (ex: Throwable) {
+                        statement.close()
+                        throw ex
                     }
                 } catch (ex: SQLException) {
                     warning("Query: $query")
@@ -93,12 +192,17 @@ open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource,
 
     /** 执行更新语句 */
     open fun executeUpdate(query: String, action: Action? = null): ResultProcessor {
+        markWrite()
         return ResultProcessor.Update(query) {
             try {
-                connection.prepareStatement(query, autoGeneratedKeys).use { statement ->
-                    action?.elements?.forEachIndexed { index, any -> statement.setObject(index + 1, any) }
-                    statement.executeUpdate().also { action?.callFinally(statement, connection) }
+                val keys = when {
+                    action !is ActionInsert -> autoGeneratedKeys
+                    action.isReturnGeneratedKeys -> Statement.RETURN_GENERATED_KEYS
+                    else -> Statement.NO_GENERATED_KEYS
                 }
+                val statement = prepareStatement(query, keys)
+                action?.elements?.let { statement.setParameters(it) }
+                measure(query, { action?.elements }) { statement.executeUpdate() }.also { action?.callFinally(statement, connection) }
             } catch (ex: SQLException) {
                 warning("Query: $query")
                 warning("Parameters (${action?.elements?.size ?: 0}): ${action?.elements}")
@@ -107,6 +211,103 @@ open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource,
         }.also { processors += it }
     }
 
+    /**
+     * 标记为写入工作空间
+     * 写入语句必须在获取连接之前声明，已经从只读副本获取连接时无法写入
+     */
+    protected fun markWrite() {
+        if (isReplicaConnection) {
+            error("The workspace already holds a read-only replica connection, declare writes before executing any select.")
+        }
+        isReadOnly = false
+    }
+
+    /**
+     * 执行并记录耗时（见 [QueryStatistics]）
+     *
+     * @param parameters 绑定的参数，仅在慢查询时获取
+     */
+    protected fun <T> measure(query: String, parameters: () -> List<Any?>?, block: () -> T): T {
+        val time = System.nanoTime()
+        try {
+            return block()
+        } finally {
+            QueryStatistics.record(query, System.nanoTime() - time, parameters)
+        }
+    }
+
+    /**
+     * 逐行读取时使用的 fetchSize
+     * MySQL 驱动只有在启用 useCursorFetch 时才会按 fetchSize 分批读取，否则需要使用 Integer.MIN_VALUE 逐行读取
+     */
+    open fun streamingFetchSize(fetchSize: Int): Int {
+        val host = table.host
+        return if (host is HostSQL && host.flags.none { it.equals("useCursorFetch=true", true) }) Int.MIN_VALUE else fetchSize
+    }
+
+    /**
+     * 批量执行更新语句
+     * 如果上一个处理器是尚未执行的相同语句，则合并到该处理器中
+     *
+     * 驱动不会改写批量执行时，每一行仍是一次单独的执行，在自动提交模式下还是一个单独的事务，
+     * 因此在自动提交模式下将多行的批量执行合并到同一个事务中
+     *
+     * @param elements 每一次执行对应的元素
+     */
+    open fun executeBatch(query: String, elements: List<List<Any>>): ResultProcessor {
+        markWrite()
+        val last = processors.lastOrNull()
+        if (last is ResultProcessor.Batch && last.query == query && !last.isBatchExecuted) {
+            last.rows += elements
+            return last
+        }
+        return ResultProcessor.Batch(query) { rows ->
+            try {
+                val statement = prepareStatement(query)
+                // 只有一次执行时不需要批量
+                if (rows.size == 1) {
+                    statement.setParameters(rows[0])
+                    intArrayOf(measure(query, { rows[0] }) { statement.executeUpdate() })
+                } else {
+                    rows.forEach {
+                        statement.setParameters(it)
+                        statement.addBatch()
+                    }
+                    if (isBatchRewritten || !connection.autoCommit) {
+                        measure(query, { rows.flatten() }) { statement.executeBatch() }
+                    } else {
+                        inTransaction { measure(query, { rows.flatten() }) { statement.executeBatch() } }
+                    }
+                }
+            } catch (ex: SQLException) {
+                warning("Query: $query")
+                warning("Batch (${rows.size}): ${rows.take(10)}")
+                throw ex
+            }
+        }.also {
+            it.rows += elements
+            processors += it
+        }
+    }
+
+    /**
+     * 在自动提交模式的连接中临时开启事务执行，失败时回滚
+     */
+    private fun <T> inTransaction(func: () -> T): T {
+        connection.autoCommit = false
+        try {
+            return func().also { connection.commit() }
+        } catch (ex: Throwable) {
+            try {
+                connection.rollback()
+            } catch (_: Throwable) {
+            }
+            throw ex
+        } finally {
+            connection.autoCommit = true
+        }
+    }
+
     /**
      * 保存更改，需要启用事务模式
      * 如果保存失败则会回滚
@@ -129,7 +330,7 @@ open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource,
                 }
                 Result.failure(e)
             } finally {
-                connection.close()
+                close()
             }
         } else {
             error("transaction is not enabled")
@@ -140,7 +341,28 @@ open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource,
      * 关闭链接
      */
     open fun close() {
-        connection.close()
+        closeStatements()
+        if (sharedConnection == null) {
+            connection.close()
+        }
+        // 写入在提交后才对副本可见，释放连接时重新记录写入时间，延迟窗口从此时开始计算
+        if (isPrimaryWriteConnection) {
+            (dataSource as? RoutingDataSource)?.markWrite()
+        }
+    }
+
+    /**
+     * 关闭所有缓存的预编译语句
+     */
+    open fun closeStatements() {
+        statements.values.forEach {
+            try {
+                it.close()
+            } catch (ex: SQLException) {
+                ex.printStackTrace()
+            }
+        }
+        statements.clear()
     }
 
     /**
@@ -207,11 +429,10 @@ open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource,
             ResultProcessor(sql, object : Executable<ResultSet> {
                 override fun <C> invoke(func: ResultSet.() -> C): C {
                     return try {
-                        connection.prepareStatement(sql, autoGeneratedKeys).use { statement: PreparedStatement ->
-                            statement.setString(1, table.name)
-                            statement.setString(2, index.name)
-                            statement.executeQuery().use { func(it) }
-                        }
+                        val statement = prepareStatement(sql)
+                        statement.setString(1, table.name)
+                        statement.setString(2, index.name)
+                        measure(sql, { listOf(table.name, index.name) }) { statement.executeQuery() }.use { func(it) }
                     } catch (ex: SQLException) {
                         warning("Query: $sql")
                         warning("Parameters (2): [${table.name},${index.name}]")
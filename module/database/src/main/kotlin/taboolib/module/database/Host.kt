@@ -38,6 +38,8 @@ abstract class Host<T : ColumnBuilder> {
 
         @Awake(LifeCycle.DISABLE)
         internal fun release() {
+            // 先等待异步任务完成，再关闭连接池
+            DatabaseExecutor.shutdownAll()
             callbackClose.forEach { it.run() }
             dataSources.forEach { it.close() }
         }
@@ -0,0 +1,238 @@
+package taboolib.module.database
+
+import taboolib.common.platform.function.warning
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * 语句执行统计与慢查询日志
+ *
+ * [ExecutableSource] 的每一次执行都会被记录。语句中的字面量会被替换为 `?`，
+ * `IN (?, ?, ?)` 这类长度不定的占位符会被合并，结构相同的语句归为同一类（[Shape]）。
+ * 超过 [slowThreshold] 的执行会连同参数一起写入慢查询日志。
+ *
+ * 记录只涉及几次原子操作，语句的归类结果会被缓存，可以在生产环境中保持开启。
+ *
+ * ```
+ * QueryStatistics.top(10).forEach { info("${it.shape} count=${it.count} avg=${it.averageTime}ms p99<=${it.percentile(0.99)}ms") }
+ * QueryStatistics.slowQueries.forEach { info("${it.time}ms ${it.query} ${it.parameters}") }
+ * ```
+ *
+ * @author agent
+ * @since 2026/10/19 12:35
+ */
+object QueryStatistics {
+
+    /** 直方图的上边界（毫秒），最后一个桶记录超过 10 秒的执行 */
+    val BUCKETS = longArrayOf(1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000)
+
+    /** 归类缓存上限，防止拼接的语句无限增长 */
+    const val MAX_CACHE_SIZE = 4096
+
+    /** 是否启用 */
+    var enable = Database.settingsFile.getBoolean("Statistics.Enable", true)
+
+    /** 慢查询阈值（毫秒） */
+    var slowThreshold = Database.settingsFile.getLong("Statistics.SlowQueryThreshold", 200)
+
+    /** 慢查询日志保留的条数 */
+    var slowLogSize = Database.settingsFile.getInt("Statistics.SlowQueryLogSize", 100)
+
+    /** 是否在控制台输出慢查询 */
+    var printSlowQuery = Database.settingsFile.getBoolean("Statistics.PrintSlowQuery", true)
+
+    /** 语句与归类 */
+    private val shapeCache = ConcurrentHashMap<String, Shape>()
+
+    /** 归类后的统计 */
+    private val shapes = ConcurrentHashMap<String, Shape>()
+
+    /** 慢查询日志 */
+    private val slowLog = ArrayDeque<SlowQuery>()
+
+    /**
+     * 慢查询
+     *
+     * @param shape 语句归类
+     * @param query 原始语句
+     * @param parameters 绑定的参数
+     * @param time 耗时（毫秒）
+     * @param timestamp 发生时间
+     */
+    data class SlowQuery(val shape: String, val query: String, val parameters: List<Any?>, val time: Double, val timestamp: Long)
+
+    /**
+     * 一类结构相同的语句
+     */
+    class Shape(val shape: String) {
+
+        private val counter = LongAdder()
+        private val total = LongAdder()
+        private val max = AtomicLong()
+        private val histogram = AtomicLongArray(BUCKETS.size + 1)
+
+        /** 执行次数 */
+        val count: Long
+            get() = counter.sum()
+
+        /** 总耗时（毫秒） */
+        val totalTime: Double
+            get() = total.sum() / 1_000_000.0
+
+        /** 平均耗时（毫秒） */
+        val averageTime: Double
+            get() = count.let { if (it == 0L) 0.0 else totalTime / it }
+
+        /** 最大耗时（毫秒） */
+        val maxTime: Double
+            get() = max.get() / 1_000_000.0
+
+        /** 各区间的执行次数，与 [BUCKETS] 对应，最后一项为超出所有区间的次数 */
+        val buckets: LongArray
+            get() = LongArray(histogram.length()) { histogram.get(it) }
+
+        /**
+         * 估算分位数（毫秒），返回所在区间的上边界
+         * 超出所有区间时返回最大耗时
+         */
+        fun percentile(percent: Double): Double {
+            val values = buckets
+            val target = (values.sum() * percent).toLong().coerceAtLeast(1)
+            var current = 0L
+            values.forEachIndexed { index, value ->
+                current += value
+                if (current >= target) {
+                    return if (index < BUCKETS.size) BUCKETS[index].toDouble() else maxTime
+                }
+            }
+            return maxTime
+        }
+
+        internal fun record(nanos: Long) {
+            counter.increment()
+            total.add(nanos)
+            max.accumulateAndGet(nanos) { a, b -> maxOf(a, b) }
+            val millis = nanos / 1_000_000
+            var index = 0
+            while (index < BUCKETS.size && millis >= BUCKETS[index]) {
+                index++
+            }
+            histogram.incrementAndGet(index)
+        }
+
+        override fun toString(): String {
+            return "Shape(shape='$shape', count=$count, averageTime=$averageTime, maxTime=$maxTime)"
+        }
+    }
+
+    /**
+     * 记录一次执行
+     *
+     * @param query 语句
+     * @param nanos 耗时（纳秒）
+     * @param parameters 绑定的参数，仅在慢查询时获取
+     */
+    fun record(query: String, nanos: Long, parameters: () -> List<Any?>?) {
+        if (!enable) {
+            return
+        }
+        val shape = shapeOf(query)
+        shape.record(nanos)
+        if (nanos >= slowThreshold * 1_000_000) {
+            val slow = SlowQuery(shape.shape, query, parameters() ?: emptyList(), nanos / 1_000_000.0, System.currentTimeMillis())
+            synchronized(slowLog) {
+                slowLog.addLast(slow)
+                while (slowLog.size > slowLogSize) {
+                    slowLog.removeFirst()
+                }
+            }
+            if (printSlowQuery) {
+                warning("Slow query (${slow.time}ms): $query")
+                warning("Parameters (${slow.parameters.size}): ${slow.parameters}")
+            }
+        }
+    }
+
+    /** 获取所有语句归类 */
+    val allShapes: List<Shape>
+        get() = shapes.values.toList()
+
+    /** 获取慢查询日志（由早到晚） */
+    val slowQueries: List<SlowQuery>
+        get() = synchronized(slowLog) { slowLog.toList() }
+
+    /** 按总耗时排序，获取前 [size] 类语句 */
+    fun top(size: Int = 10): List<Shape> {
+        return shapes.values.sortedByDescending { it.totalTime }.take(size)
+    }
+
+    /** 获取语句所属的归类统计 */
+    fun get(query: String): Shape? {
+        return shapes[normalize(query)]
+    }
+
+    /** 清空所有统计 */
+    fun reset() {
+        shapeCache.clear()
+        shapes.clear()
+        synchronized(slowLog) { slowLog.clear() }
+    }
+
+    private fun shapeOf(query: String): Shape {
+        shapeCache[query]?.let { return it }
+        val shape = shapes.computeIfAbsent(normalize(query)) { Shape(it) }
+        if (shapeCache.size < MAX_CACHE_SIZE) {
+            shapeCache[query] = shape
+        }
+        return shape
+    }
+
+    /**
+     * 去除语句中的字面量
+     * 字符串与数字替换为 `?`，连续的占位符列表合并为 `?+`
+     */
+    fun normalize(query: String): String {
+        val builder = StringBuilder(query.length)
+        var i = 0
+        while (i < query.length) {
+            val c = query[i]
+            when {
+                // 字符串
+                c == '\'' || c == '"' -> {
+                    i++
+                    while (i < query.length) {
+                        if (query[i] == c) {
+                            // 转义的引号
+                            if (i + 1 < query.length && query[i + 1] == c) {
+                                i += 2
+                                continue
+                            }
+                            break
+                        }
+                        if (query[i] == '\\') i++
+                        i++
+                    }
+                    builder.append('?')
+                }
+                // 被反引号包围的名称原样保留
+                c == '`' -> {
+                    val end = query.indexOf('`', i + 1).let { if (it == -1) query.length - 1 else it }
+                    builder.append(query, i, end + 1)
+                    i = end
+                }
+                // 数字（不属于名称的一部分）
+                c.isDigit() && (builder.isEmpty() || !(builder.last().isLetterOrDigit() || builder.last() == '_')) -> {
+                    while (i + 1 < query.length && (query[i + 1].isDigit() || query[i + 1] == '.')) i++
+                    builder.append('?')
+                }
+                else -> builder.append(c)
+            }
+            i++
+        }
+        return builder.toString().replace(PLACEHOLDER_LIST, "(?+)")
+    }
+
+    private val PLACEHOLDER_LIST = Regex("(?:\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)\\s*,\\s*)*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)")
+}
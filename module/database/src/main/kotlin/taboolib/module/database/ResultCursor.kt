@@ -0,0 +1,96 @@
+package taboolib.module.database
+
+import java.sql.ResultSet
+
+/**
+ * 逐行读取的查询结果
+ *
+ * 不会将结果集一次性读入内存，适用于导出、迁移等需要遍历大量数据的场景：
+ * ```
+ * table.select(dataSource) { rows("user", "value") }.cursor(fetchSize = 500) {
+ *     getString("user") to getString("value")
+ * }.use { cursor ->
+ *     cursor.asSequence().forEach { (user, value) -> ... }
+ * }
+ * ```
+ *
+ * 遍历完成或读取失败时会自动关闭结果集并释放连接，
+ * 提前结束遍历时需要手动调用 [close]（或使用 `use`）。
+ *
+ * 关于 fetchSize：MySQL 驱动只有在连接参数中启用 `useCursorFetch=true` 时才会按 fetchSize 分批读取，
+ * 否则 fetchSize 会被忽略，改为逐行流式读取（[ExecutableSource.streamingFetchSize]），
+ * 此时在遍历完成前同一连接无法执行其他语句。
+ *
+ * @author agent
+ * @since 2026/10/19 12:33
+ */
+class ResultCursor<T>(private val resultSet: ResultSet, private val mapper: ResultSet.() -> T, private val onClose: Runnable = Runnable { }) : Iterator<T>, AutoCloseable {
+
+    /** 0 = 未读取，1 = 已读取下一行，2 = 结束 */
+    private var state = 0
+
+    /** 是否已经关闭 */
+    var isClosed = false
+        private set
+
+    /** 已读取的行数 */
+    var count = 0L
+        private set
+
+    override fun hasNext(): Boolean {
+        if (state == 0) {
+            state = if (!isClosed && advance()) 1 else 2
+        }
+        return state == 1
+    }
+
+    override fun next(): T {
+        if (!hasNext()) {
+            throw NoSuchElementException()
+        }
+        state = 0
+        count++
+        return try {
+            mapper(resultSet)
+        } catch (ex: Throwable) {
+            close()
+            throw ex
+        }
+    }
+
+    /** 转换为只能遍历一次的序列 */
+    fun asSequence(): Sequence<T> {
+        return Sequence { this }.constrainOnce()
+    }
+
+    /** 关闭结果集及其语句，并释放连接 */
+    override fun close() {
+        if (isClosed) {
+            return
+        }
+        isClosed = true
+        state = 2
+        try {
+            val statement = resultSet.statement
+            resultSet.close()
+            statement?.close()
+        } finally {
+            onClose.run()
+        }
+    }
+
+    private fun advance(): Boolean {
+        return try {
+            resultSet.next().also { if (!it) close() }
+        } catch (ex: Throwable) {
+            close()
+            throw ex
+        }
+    }
+
+    companion object {
+
+        /** 默认每次从数据库读取的行数 */
+        const val DEFAULT_FETCH_SIZE = 1000
+    }
+}
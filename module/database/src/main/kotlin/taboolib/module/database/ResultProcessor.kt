@@ -1,6 +1,7 @@
 package taboolib.module.database
 
 import java.sql.ResultSet
+import java.util.function.Function
 import java.util.function.Supplier
 
 /**
@@ -19,6 +20,34 @@ open class ResultProcessor(val query: String, val executor: Executable<ResultSet
         }
     }
 
+    /**
+     * 批量执行
+     * 工作空间中连续的相同语句会被合并到同一个批量处理器中，只执行一次
+     */
+    class Batch(query: String, val callback: Function<List<List<Any>>, IntArray>) : ResultProcessor(query, Executable.Empty) {
+
+        /** 每一次执行对应的元素 */
+        val rows = ArrayList<List<Any>>()
+
+        /** 是否已经执行 */
+        var isBatchExecuted = false
+            private set
+
+        /** 运行并返回受影响的总行数 */
+        override fun run(): Int {
+            if (isBatchExecuted) {
+                return 0
+            }
+            isBatchExecuted = true
+            var total = 0
+            callback.apply(rows).forEach {
+                // 驱动无法统计行数时（SUCCESS_NO_INFO）视为影响了一行
+                total += if (it == java.sql.Statement.SUCCESS_NO_INFO) 1 else it.coerceAtLeast(0)
+            }
+            return total
+        }
+    }
+
     /** 是否已经执行 */
     var isExecuted = false
         private set
@@ -112,6 +141,21 @@ open class ResultProcessor(val query: String, val executor: Executable<ResultSet
         }
     }
 
+    /**
+     * 运行并逐行读取结果
+     * 结果不会一次性读入内存，遍历完成后需要关闭（见 [ResultCursor]）
+     *
+     * @param fetchSize 每次从数据库读取的行数，MySQL 未启用 useCursorFetch 时会被忽略并逐行读取
+     */
+    open fun <T> cursor(fetchSize: Int = ResultCursor.DEFAULT_FETCH_SIZE, call: ResultSet.() -> T): ResultCursor<T> {
+        if (isExecuted) {
+            error("processor is already executed: $query")
+        }
+        val streamable = executor as? Executable.Streamable ?: error("processor does not support cursor: $query")
+        isExecuted = true
+        return ResultCursor(streamable.open(fetchSize), call)
+    }
+
     /** 运行并遍历所有结果 */
     open fun forEachIndexed(call: ResultSet.(index: Int) -> Unit) {
         if (isExecuted) {
@@ -107,6 +107,32 @@ open class ResultProcessorList(processors: List<ResultProcessor>, val source: Ex
         }
     }
 
+    /**
+     * 逐行读取最后一个处理器的结果
+     * 连接会在遍历完成、读取失败或调用 [ResultCursor.close] 后释放
+     *
+     * @param fetchSize 每次从数据库读取的行数，MySQL 未启用 useCursorFetch 时会被忽略并逐行读取
+     */
+    open fun <T> cursor(fetchSize: Int = ResultCursor.DEFAULT_FETCH_SIZE, resultSet: ResultSet.() -> T): ResultCursor<T> {
+        if (isExecuted) {
+            error("processors is already executed")
+        }
+        isExecuted = true
+        val last = processors.removeLast()
+        val streamable = last.executor as? Executable.Streamable
+        if (streamable == null) {
+            source?.close()
+            error("processor does not support cursor: ${last.query}")
+        }
+        return try {
+            processors.forEach { it.run() }
+            ResultCursor(streamable.open(fetchSize), resultSet) { source?.close() }
+        } catch (ex: Throwable) {
+            source?.close()
+            throw ex
+        }
+    }
+
     open fun forEach(resultSet: ResultSet.() -> Unit) {
         if (isExecuted) {
             error("processors is already executed")
@@ -0,0 +1,158 @@
+package taboolib.module.database
+
+import taboolib.common.platform.function.warning
+import java.io.PrintWriter
+import java.sql.Connection
+import java.sql.SQLException
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+import java.util.logging.Logger
+import javax.sql.DataSource
+
+/**
+ * 读写分离的数据源
+ *
+ * 只包含查询语句的工作空间（例如 [Table.select]、[Table.find]）会被分配到只读副本，
+ * 写入与事务始终在主库中执行。直接调用 [getConnection] 获取的是主库连接。
+ * 写入工作空间在获取与释放连接时都会记录写入时间。
+ * 通过 [Database.createDataSource] 创建时，主库与副本的连接池默认在插件卸载时关闭。
+ *
+ * ```
+ * val dataSource = Database.createDataSource(primary, listOf(replica1, replica2), RoutingDataSource.StalenessPolicy.readAfterWrite(1000))
+ * ```
+ *
+ * @param primary 主库
+ * @param replicas 只读副本
+ * @param policy 副本数据的延迟策略
+ * @author agent
+ * @since 2026/10/19 12:36
+ */
+class RoutingDataSource(val primary: DataSource, val replicas: List<DataSource>, val policy: StalenessPolicy = StalenessPolicy.readAfterWrite(1000)) : DataSource, AutoCloseable {
+
+    /**
+     * 副本数据的延迟策略
+     *
+     * @param window 写入后的这段时间（毫秒）内，查询仍然在主库中执行，避免读到尚未同步的数据
+     * @param primaryOnly 是否所有查询都在主库中执行（用于临时停用副本）
+     */
+    class StalenessPolicy private constructor(val window: Long, val primaryOnly: Boolean) {
+
+        override fun toString(): String {
+            return "StalenessPolicy(window=$window, primaryOnly=$primaryOnly)"
+        }
+
+        companion object {
+
+            /** 始终从副本读取，允许读到延迟的数据 */
+            val EVENTUAL = StalenessPolicy(0, false)
+
+            /** 始终从主库读取 */
+            val PRIMARY_ONLY = StalenessPolicy(0, true)
+
+            /** 写入后 [window] 毫秒内从主库读取 */
+            fun readAfterWrite(window: Long): StalenessPolicy {
+                return StalenessPolicy(window, false)
+            }
+        }
+    }
+
+    /** 轮询序号 */
+    private val index = AtomicInteger()
+
+    /** 最后一次写入的时间 */
+    private val lastWrite = AtomicLong()
+
+    /** 分配到副本的查询次数 */
+    val replicaReads = AtomicLong()
+
+    /** 分配到主库的查询次数 */
+    val primaryReads = AtomicLong()
+
+    /**
+     * 获取用于查询的连接
+     * 根据延迟策略选择副本，副本不可用时退回主库
+     */
+    fun getReadConnection(): Connection {
+        if (replicas.isEmpty() || policy.primaryOnly || System.currentTimeMillis() - lastWrite.get() < policy.window) {
+            primaryReads.incrementAndGet()
+            return primary.connection
+        }
+        val start = Math.floorMod(index.getAndIncrement(), replicas.size)
+        for (i in replicas.indices) {
+            try {
+                return replicas[(start + i) % replicas.size].connection.also { replicaReads.incrementAndGet() }
+            } catch (ex: SQLException) {
+                warning("Replica is unavailable: ${ex.message}")
+            }
+        }
+        primaryReads.incrementAndGet()
+        return primary.connection
+    }
+
+    /**
+     * 获取用于写入的连接，并记录写入时间
+     */
+    fun getWriteConnection(): Connection {
+        markWrite()
+        return primary.connection
+    }
+
+    /**
+     * 记录写入时间
+     */
+    fun markWrite() {
+        lastWrite.set(System.currentTimeMillis())
+    }
+
+    /**
+     * 直接获取连接时无法判断用途，视为写入
+     */
+    override fun getConnection(): Connection {
+        return getWriteConnection()
+    }
+
+    override fun getConnection(username: String?, password: String?): Connection {
+        markWrite()
+        return primary.getConnection(username, password)
+    }
+
+    override fun getLogWriter(): PrintWriter? {
+        return primary.logWriter
+    }
+
+    override fun setLogWriter(out: PrintWriter?) {
+        primary.logWriter = out
+    }
+
+    override fun setLoginTimeout(seconds: Int) {
+        primary.loginTimeout = seconds
+    }
+
+    override fun getLoginTimeout(): Int {
+        return primary.loginTimeout
+    }
+
+    override fun getParentLogger(): Logger {
+        return primary.parentLogger
+    }
+
+    override fun <T : Any?> unwrap(iface: Class<T>): T {
+        @Suppress("UNCHECKED_CAST")
+        return if (iface.isInstance(this)) this as T else primary.unwrap(iface)
+    }
+
+    override fun isWrapperFor(iface: Class<*>): Boolean {
+        return iface.isInstance(this) || primary.isWrapperFor(iface)
+    }
+
+    /**
+     * 关闭主库与所有副本
+     */
+    override fun close() {
+        (listOf(primary) + replicas).forEach { (it as? AutoCloseable)?.close() }
+    }
+
+    override fun toString(): String {
+        return "RoutingDataSource(primary=$primary, replicas=$replicas, policy=$policy)"
+    }
+}
@@ -0,0 +1,162 @@
+package taboolib.module.database
+
+import com.zaxxer.hikari.HikariDataSource
+import taboolib.common.platform.function.warning
+import java.sql.Connection
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import javax.sql.DataSource
+
+/**
+ * SQLite 单线程写入队列
+ *
+ * SQLite 同一时间只允许一个写入者，多个线程同时写入只会互相等待并触发 SQLITE_BUSY。
+ * 所有异步写入都会进入这个队列，由单个线程取出并合并到同一个事务中提交，
+ * 每个写入使用独立的保存点，失败时只回滚自身。查询在 WAL 模式下可以与写入并行。
+ *
+ * 由 [DatabaseExecutor] 为 SQLite 数据源自动创建，[Table.updateAsync]、[Table.workspaceAsync] 等写入方法会经过该队列。
+ * 连接池关闭后，写入线程会在空闲时自行结束。
+ *
+ * @param maxBatchSize 每个事务最多合并的写入数量
+ * @param queueSize 等待队列的上限
+ * @author agent
+ * @since 2026/10/19 12:37
+ */
+class SQLiteWriter(val dataSource: DataSource, val maxBatchSize: Int = 256, val queueSize: Int = 1024) {
+
+    /** 等待中的写入 */
+    private val queue = LinkedBlockingQueue<Job>(queueSize)
+
+    /** 是否正在运行 */
+    @Volatile
+    private var running = true
+
+    /** 提交的事务数量 */
+    val commits = AtomicLong()
+
+    /** 完成的写入数量 */
+    val writes = AtomicLong()
+
+    /** 等待中的写入数量 */
+    val queued: Int
+        get() = queue.size
+
+    /** 写入线程是否仍在运行 */
+    val isAlive: Boolean
+        get() = thread.isAlive
+
+    /** 连接池关闭、写入线程结束后执行，由 [DatabaseExecutor] 用于移除对应的执行器 */
+    internal var onClose: Runnable? = null
+
+    /** 写入线程 */
+    private val thread = Thread(::loop, "TSQLiteWriter").apply {
+        isDaemon = true
+        start()
+    }
+
+    /**
+     * 提交写入，返回工作空间 `run()` 的结果
+     * 结果在事务提交之后才会返回
+     */
+    fun submit(table: Table<*, *>, func: ExecutableSource.() -> Unit): CompletableFuture<Int> {
+        val job = Job(table, func)
+        if (!running || !queue.offer(job)) {
+            job.future.completeExceptionally(RejectedExecutionException("SQLite writer queue is full or shut down"))
+        }
+        return job.future
+    }
+
+    /**
+     * 停止写入线程，等待队列中的写入完成
+     */
+    fun shutdown(timeout: Long = 5000) {
+        running = false
+        // 在写入线程中关闭时不需要等待自身
+        if (Thread.currentThread() !== thread) {
+            thread.join(timeout)
+        }
+        // 未能写入的任务
+        generateSequence { queue.poll() }.forEach { it.future.completeExceptionally(RejectedExecutionException("SQLite writer is shut down")) }
+    }
+
+    private fun loop() {
+        while (running || queue.isNotEmpty()) {
+            val first = try {
+                queue.poll(100, TimeUnit.MILLISECONDS)
+            } catch (_: InterruptedException) {
+                return
+            }
+            if (first == null) {
+                // 连接池已关闭，结束写入线程
+                if ((dataSource as? HikariDataSource)?.isClosed == true) {
+                    shutdown()
+                    onClose?.run()
+                    return
+                }
+                continue
+            }
+            val batch = arrayListOf(first)
+            queue.drainTo(batch, maxBatchSize - 1)
+            flush(batch)
+        }
+    }
+
+    private fun flush(batch: List<Job>) {
+        val results = arrayOfNulls<Any>(batch.size)
+        try {
+            dataSource.connection.use { connection ->
+                connection.autoCommit = false
+                try {
+                    batch.forEachIndexed { index, job ->
+                        // 每个写入使用独立的保存点
+                        val savepoint = connection.setSavepoint()
+                        results[index] = try {
+                            job.run(connection).also { connection.releaseSavepoint(savepoint) }
+                        } catch (ex: Throwable) {
+                            connection.rollback(savepoint)
+                            ex
+                        }
+                    }
+                    connection.commit()
+                    commits.incrementAndGet()
+                } catch (ex: Throwable) {
+                    try {
+                        connection.rollback()
+                    } catch (_: Throwable) {
+                    }
+                    throw ex
+                } finally {
+                    connection.autoCommit = true
+                }
+            }
+        } catch (ex: Throwable) {
+            warning("SQLite writer failed to commit ${batch.size} write(s): ${ex.message}")
+            batch.forEach { it.future.completeExceptionally(ex) }
+            return
+        }
+        batch.forEachIndexed { index, job ->
+            when (val result = results[index]) {
+                is Throwable -> job.future.completeExceptionally(result)
+                else -> {
+                    writes.incrementAndGet()
+                    job.future.complete(result as Int)
+                }
+            }
+        }
+    }
+
+    private inner class Job(val table: Table<*, *>, val func: ExecutableSource.() -> Unit) {
+
+        val future = CompletableFuture<Int>()
+
+        fun run(connection: Connection): Int {
+            val source = ExecutableSource(table, dataSource, false)
+            source.sharedConnection = connection
+            func(source)
+            return ResultProcessorList(source.processors, source).run()
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package taboolib.module.database
 
+import java.sql.ResultSet
+import java.sql.SQLException
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
 import javax.sql.DataSource
 
 /**
@@ -67,6 +71,129 @@ open class Table<T : Host<E>, E : ColumnBuilder>(val name: String, val host: Hos
         return workspace(dataSource) { insert(keys) { func(this) } }.run()
     }
 
+    /**
+     * 异步查询数据，并在执行器中完成结果的读取
+     * 异步方法均由数据源的 [DatabaseExecutor] 执行
+     */
+    open fun <R> selectAsync(dataSource: DataSource, func: ActionSelect.() -> Unit, result: ResultSet.() -> R): CompletableFuture<List<R>> {
+        return DatabaseExecutor.of(dataSource).submit { select(dataSource, func).map(result) }
+    }
+
+    /** 异步查询是否存在数据 */
+    open fun findAsync(dataSource: DataSource, func: ActionSelect.() -> Unit): CompletableFuture<Boolean> {
+        return DatabaseExecutor.of(dataSource).submit { find(dataSource, func) }
+    }
+
+    /**
+     * 异步更新数据
+     * 写入方法在 SQLite 中会经过单线程写入队列（见 [SQLiteWriter]）
+     */
+    open fun updateAsync(dataSource: DataSource, func: ActionUpdate.() -> Unit): CompletableFuture<Int> {
+        return DatabaseExecutor.of(dataSource).write(this, dataSource) { update(func) }
+    }
+
+    /** 异步删除数据 */
+    open fun deleteAsync(dataSource: DataSource, func: ActionDelete.() -> Unit): CompletableFuture<Int> {
+        return DatabaseExecutor.of(dataSource).write(this, dataSource) { delete(func) }
+    }
+
+    /** 异步插入数据 */
+    open fun insertAsync(dataSource: DataSource, keys: List<String>, func: ActionInsert.() -> Unit): CompletableFuture<Int> {
+        return DatabaseExecutor.of(dataSource).write(this, dataSource) { insert(keys, func) }
+    }
+
+    /** 异步插入或更新数据 */
+    open fun upsertAsync(dataSource: DataSource, keys: List<String>, conflictKeys: List<String>, func: ActionUpsert.() -> Unit): CompletableFuture<Int> {
+        return DatabaseExecutor.of(dataSource).write(this, dataSource) { upsert(keys, conflictKeys, func) }
+    }
+
+    /**
+     * 异步执行工作空间，返回 `run()` 的结果
+     * 工作空间的创建同样在执行器中进行
+     */
+    open fun workspaceAsync(dataSource: DataSource, func: ExecutableSource.() -> Unit): CompletableFuture<Int> {
+        return DatabaseExecutor.of(dataSource).write(this, dataSource, func)
+    }
+
+    /**
+     * 异步执行事务
+     * 在 SQLite 中以保存点的形式合并到写入队列的事务中，同样要么全部完成，要么全部撤销
+     */
+    open fun transactionAsync(dataSource: DataSource, func: ExecutableSource.() -> Unit): CompletableFuture<Result<Unit>> {
+        val executor = DatabaseExecutor.of(dataSource)
+        if (executor.writer == null) {
+            return executor.submit { transaction(dataSource, func) }
+        }
+        return executor.writer.submit(this, func).handle { _, ex ->
+            if (ex == null) Result.success(Unit) else Result.failure((ex as? CompletionException)?.cause ?: ex)
+        }
+    }
+
+    /**
+     * 插入或更新数据，只需要一次请求
+     *
+     * ```
+     * upsert(dataSource, listOf("user", "key", "value"), listOf("user", "key")) {
+     *     value(user, key, value)
+     * }
+     * ```
+     *
+     * @param keys 插入的列
+     * @param conflictKeys 判断重复的列，需要存在唯一索引（见 [isUnique]）
+     */
+    open fun upsert(dataSource: DataSource, keys: List<String>, conflictKeys: List<String>, func: ActionUpsert.() -> Unit): Int {
+        return workspace(dataSource) { upsert(keys, conflictKeys, func) }.run()
+    }
+
+    /**
+     * 给定的列是否恰好构成一个唯一索引（或主键）
+     * 只有在这种情况下才能作为 [upsert] 的冲突键
+     */
+    open fun isUnique(keys: List<String>): Boolean {
+        val target = keys.toSet()
+        if (target.isEmpty()) {
+            return false
+        }
+        // 旧版主键
+        if (primaryKeyForLegacy.isNotEmpty() && primaryKeyForLegacy.toSet() == target) {
+            return true
+        }
+        // 额外的唯一索引
+        if (indices.any { it.unique && it.columns.toSet() == target }) {
+            return true
+        }
+        // 列的主键与唯一索引
+        val sql = columns.filterIsInstance<ColumnSQL>()
+        if (sql.any { it.options.contains(ColumnOptionSQL.PRIMARY_KEY) && setOf(it.name) == target }) {
+            return true
+        }
+        // 同类型的 UNIQUE_KEY 列会被合并为同一个唯一索引
+        if (sql.filter { it.options.contains(ColumnOptionSQL.UNIQUE_KEY) }.groupBy { it.indexType }.values.any { group -> group.map { it.name }.toSet() == target }) {
+            return true
+        }
+        return columns.filterIsInstance<ColumnSQLite>().any {
+            (it.options.contains(ColumnOptionSQLite.PRIMARY_KEY) || it.options.contains(ColumnOptionSQLite.UNIQUE)) && setOf(it.name) == target
+        }
+    }
+
+    /**
+     * 当前数据库是否支持 [upsert]
+     * SQLite 需要 3.24.0 及以上版本
+     */
+    open fun isUpsertSupported(dataSource: DataSource): Boolean {
+        if (host !is HostSQLite) {
+            return true
+        }
+        return try {
+            val version = dataSource.connection.use { it.metaData.databaseProductVersion }.split('.').map { it.toIntOrNull() ?: 0 }
+            val major = version.getOrElse(0) { 0 }
+            val minor = version.getOrElse(1) { 0 }
+            major > 3 || (major == 3 && minor >= 24)
+        } catch (ex: SQLException) {
+            false
+        }
+    }
+
     /**
      * # 创建工作空间
      *
@@ -102,6 +229,10 @@ open class Table<T : Host<E>, E : ColumnBuilder>(val name: String, val host: Hos
      * ```
      *
      * 需要注意的是，上面工作空间中的 `select` 操作只会执行一次，且在 `run()` 之前。
+     *
+     * 连续的相同 `update` 或 `delete` 语句（例如第一个例子）会通过同一个预编译语句合并为一次批量执行，
+     * 此时 `run()` 返回它们受影响的总行数。驱动不会改写批量执行时（SQLite 或未启用 rewriteBatchedStatements 的 MySQL），
+     * 合并后的语句在同一个事务中提交。
      */
     open fun workspace(dataSource: DataSource, func: ExecutableSource.() -> Unit): ResultProcessorList {
         val source = ExecutableSource(this, dataSource, false).also(func)
@@ -45,6 +45,27 @@ fun <T> PreparedStatement.use(func: (statement: PreparedStatement) -> T): T {
     }
 }
 
+/**
+ * 按顺序绑定参数，常见类型使用对应的方法，避免驱动在 setObject 中逐一判断类型
+ */
+internal fun PreparedStatement.setParameters(elements: List<Any>) {
+    elements.forEachIndexed { i, value ->
+        val index = i + 1
+        when (value) {
+            is String -> setString(index, value)
+            is Int -> setInt(index, value)
+            is Long -> setLong(index, value)
+            is Double -> setDouble(index, value)
+            is Float -> setFloat(index, value)
+            is Boolean -> setBoolean(index, value)
+            is Short -> setShort(index, value)
+            is Byte -> setByte(index, value)
+            is ByteArray -> setBytes(index, value)
+            else -> setObject(index, value)
+        }
+    }
+}
+
 /**
  * 尝试格式化一个列名
  */
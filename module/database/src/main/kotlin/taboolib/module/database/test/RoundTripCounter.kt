@@ -0,0 +1,99 @@
+package taboolib.module.database.test
+
+import java.lang.reflect.InvocationTargetException
+import java.lang.reflect.Method
+import java.lang.reflect.Proxy
+import java.sql.Connection
+import java.sql.PreparedStatement
+import java.util.concurrent.atomic.AtomicLong
+import javax.sql.DataSource
+
+/**
+ * TabooLib
+ * taboolib.module.database.test.RoundTripCounter
+ *
+ * 统计通过数据源发出的执行次数与事务数量。
+ *
+ * 驱动不改写批量执行时（SQLite、未启用 rewriteBatchedStatements 的 MySQL），批量中的每一行都按一次执行计算；
+ * 自动提交模式下每次执行都是一个事务。
+ *
+ * @author agent
+ * @since 2026/10/19 13:40
+ */
+internal class RoundTripCounter(private val delegate: DataSource) : DataSource by delegate {
+
+    /** 执行次数（包括提交、回滚与切换自动提交） */
+    val roundTrips = AtomicLong()
+
+    /** 事务数量 */
+    val transactions = AtomicLong()
+
+    /** 重置计数 */
+    fun reset() {
+        roundTrips.set(0)
+        transactions.set(0)
+    }
+
+    override fun getConnection(): Connection {
+        return connection(delegate.connection)
+    }
+
+    override fun getConnection(username: String?, password: String?): Connection {
+        return connection(delegate.getConnection(username, password))
+    }
+
+    private fun connection(connection: Connection): Connection {
+        return proxy<Connection> { method, args ->
+            when (method.name) {
+                "commit" -> {
+                    roundTrips.incrementAndGet()
+                    transactions.incrementAndGet()
+                }
+                "rollback" -> roundTrips.incrementAndGet()
+                "setAutoCommit" -> if (connection.autoCommit != args!![0]) roundTrips.incrementAndGet()
+            }
+            val result = invoke(connection, method, args)
+            if (result is PreparedStatement) statement(connection, result) else result
+        }
+    }
+
+    private fun statement(connection: Connection, statement: PreparedStatement): PreparedStatement {
+        // 等待批量执行的行数
+        var batch = 0
+        return proxy<PreparedStatement> { method, args ->
+            when (method.name) {
+                "executeUpdate", "executeQuery", "execute" -> count(connection, 1)
+                "addBatch" -> batch++
+                "clearBatch" -> batch = 0
+                "executeBatch" -> {
+                    count(connection, batch)
+                    batch = 0
+                }
+            }
+            invoke(statement, method, args)
+        }
+    }
+
+    private fun count(connection: Connection, executions: Int) {
+        roundTrips.addAndGet(executions.toLong())
+        if (connection.autoCommit) {
+            transactions.addAndGet(executions.toLong())
+        }
+    }
+
+    private fun invoke(target: Any, method: Method, args: Array<Any?>?): Any? {
+        return try {
+            method.invoke(target, *(args ?: emptyArray()))
+        } catch (ex: InvocationTargetException) {
+            throw ex.targetException
+        }
+    }
+
+    /**
+     * 创建 [T] 接口的代理，[handler] 负责调用原对象
+     */
+    @Suppress("UNCHECKED_CAST")
+    private inline fun <reified T> proxy(crossinline handler: (method: Method, args: Array<Any?>?) -> Any?): T {
+        return Proxy.newProxyInstance(RoundTripCounter::class.java.classLoader, arrayOf(T::class.java)) { _, method, args -> handler(method, args) } as T
+    }
+}
@@ -0,0 +1,63 @@
+package taboolib.module.database.test
+
+import com.zaxxer.hikari.HikariDataSource
+import taboolib.module.database.*
+import java.io.File
+
+/**
+ * TabooLib
+ * taboolib.module.database.test.SQLiteSandbox
+ *
+ * 测试使用的临时 SQLite 数据库，结束后关闭连接池并删除文件。
+ *
+ * @author agent
+ * @since 2026/10/19 12:56
+ */
+internal object SQLiteSandbox {
+
+    /**
+     * 在临时数据库文件中执行
+     */
+    fun <R> withHost(func: (host: HostSQLite) -> R): R {
+        val file = File.createTempFile("taboolib-test", ".db")
+        try {
+            return func(file.getHost())
+        } finally {
+            listOf("", "-wal", "-shm", "-journal").forEach { File(file.path + it).delete() }
+        }
+    }
+
+    /**
+     * 测试表，包含 id（整数）与 value（文本）两列
+     */
+    fun table(host: HostSQLite): Table<Host<SQLite>, SQLite> {
+        return Table("test", host) {
+            add("id") {
+                type(ColumnTypeSQLite.INTEGER)
+            }
+            add("value") {
+                type(ColumnTypeSQLite.TEXT)
+            }
+        }
+    }
+
+    /**
+     * 创建连接池
+     */
+    fun dataSource(host: HostSQLite): HikariDataSource {
+        return Database.createDataSource(host) as HikariDataSource
+    }
+
+    /**
+     * 在临时数据库中创建测试表并执行
+     */
+    fun <R> withTable(func: (table: Table<Host<SQLite>, SQLite>, dataSource: HikariDataSource) -> R): R {
+        return withHost { host ->
+            val table = table(host)
+            dataSource(host).use { dataSource ->
+                table.createTable(dataSource)
+                func(table, dataSource)
+            }
+        }
+    }
+}
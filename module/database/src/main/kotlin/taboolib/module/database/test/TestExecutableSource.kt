@@ -0,0 +1,113 @@
+package taboolib.module.database.test
+
+import taboolib.common.Test
+import taboolib.module.database.*
+import java.sql.Statement
+import javax.sql.DataSource
+
+/**
+ * TabooLib
+ * taboolib.module.database.test.TestExecutableSource
+ *
+ * @author agent
+ * @since 2026/10/19 12:56
+ */
+object TestExecutableSource : Test() {
+
+    /** 每次插入的行数（多行插入受 SQLite 参数数量上限限制，旧版本为 999） */
+    const val ROWS = 400
+
+    /** 每次更新的次数 */
+    const val UPDATES = 200
+
+    override fun check(): List<Result> {
+        val result = arrayListOf<Result>()
+        // 驱动不改写批量执行时，多行插入仍为一条多行语句
+        result += sandbox("Database:ExecutableSource.insert()") {
+            SQLiteSandbox.withTable { table, dataSource ->
+                val counter = RoundTripCounter(dataSource)
+                val updated = table.workspace(counter) { insert("id", "value") { repeat(ROWS) { value(it, "value$it") } } }.run()
+                val count = table.select(dataSource) { rows("count(*)") }.first { getInt(1) }
+                check(updated == ROWS && count == ROWS) { "updated=$updated, count=$count" }
+                check(counter.roundTrips.get() == 1L && counter.transactions.get() == 1L) { "roundTrips=${counter.roundTrips}, transactions=${counter.transactions}" }
+            }
+        }
+        // 连续的相同更新合并为一次批量执行，并在同一个事务中提交
+        result += sandbox("Database:ExecutableSource.update() batch") {
+            SQLiteSandbox.withTable { table, dataSource ->
+                table.workspace(dataSource) { insert("id", "value") { repeat(UPDATES) { value(it, "value$it") } } }.run()
+                val counter = RoundTripCounter(dataSource)
+                val updated = table.workspace(counter) { repeat(UPDATES) { index -> update { set("value", "updated$index"); where { "id" eq index } } } }.run()
+                val values = table.select(dataSource) { rows("id", "value") }.map { getInt("id") to getString("value") }
+                check(updated == UPDATES) { "updated=$updated" }
+                check(values.size == UPDATES && values.all { (id, value) -> value == "updated$id" }) { values.take(10).toString() }
+                check(counter.transactions.get() == 1L) { "transactions=${counter.transactions}" }
+            }
+        }
+        // 多行插入，与修改前一致（一条多行语句，每次执行重新预编译）
+        result += SQLiteSandbox.withTable { table, dataSource ->
+            val counter = RoundTripCounter(dataSource)
+            val action = ActionInsert("test", arrayOf("id", "value")).also { action -> repeat(ROWS) { action.value(it, "value$it") } }
+            compare(
+                "Database:ExecutableSource.insert() $ROWS rows", counter, mapOf(
+                    "workspace" to Runnable {
+                        clear(dataSource)
+                        table.workspace(counter) { insert("id", "value") { repeat(ROWS) { value(it, "value$it") } } }.run()
+                    },
+                    "baseline" to Runnable {
+                        clear(dataSource)
+                        counter.connection.use { connection -> executeUpdate(connection, action.query, action.elements) }
+                    }
+                )
+            )
+        }
+        // 重复更新，与修改前逐个执行对比（每次更新一次执行，自动提交模式下各为一个事务）
+        result += SQLiteSandbox.withTable { table, dataSource ->
+            table.workspace(dataSource) { insert("id", "value") { repeat(UPDATES) { value(it, "value$it") } } }.run()
+            val counter = RoundTripCounter(dataSource)
+            val actions = List(UPDATES) { index -> ActionUpdate("test").also { it.set("value", "updated$index"); it.where { "id" eq index } } }
+            compare(
+                "Database:ExecutableSource.update() x $UPDATES", counter, mapOf(
+                    "workspace" to Runnable {
+                        table.workspace(counter) { repeat(UPDATES) { index -> update { set("value", "updated$index"); where { "id" eq index } } } }.run()
+                    },
+                    "baseline" to Runnable {
+                        counter.connection.use { connection -> actions.forEach { executeUpdate(connection, it.query, it.elements) } }
+                    }
+                )
+            )
+        }
+        return result
+    }
+
+    /**
+     * 对比耗时，并附加每一项单次执行的执行次数与事务数量
+     */
+    private fun compare(reason: String, counter: RoundTripCounter, cases: Map<String, Runnable>): Result {
+        val benchmark = benchmark(reason, 10, cases, warmup = 2)
+        if (benchmark !is Success) {
+            return benchmark
+        }
+        val trips = cases.map { (name, case) ->
+            case.run()
+            counter.reset()
+            case.run()
+            "$name=${counter.roundTrips} round trips/${counter.transactions} tx"
+        }
+        return Success.of("${benchmark.reason} (${trips.joinToString(", ")})")
+    }
+
+    /**
+     * 修改前的 executeUpdate，每次执行都重新预编译语句
+     */
+    private fun executeUpdate(connection: java.sql.Connection, query: String, elements: List<Any>) {
+        connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS).use { statement ->
+            elements.forEachIndexed { index, any -> statement.setObject(index + 1, any) }
+            statement.executeUpdate()
+        }
+    }
+
+    private fun clear(dataSource: DataSource) {
+        dataSource.open("DELETE FROM `test`") { _, statement -> statement.executeUpdate() }
+    }
+}
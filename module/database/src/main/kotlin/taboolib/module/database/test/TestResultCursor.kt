@@ -0,0 +1,61 @@
+package taboolib.module.database.test
+
+import taboolib.common.Test
+
+/**
+ * TabooLib
+ * taboolib.module.database.test.TestResultCursor
+ *
+ * @author agent
+ * @since 2026/10/19 12:56
+ */
+object TestResultCursor : Test() {
+
+    /** 表中的行数 */
+    const val ROWS = 100000
+
+    /** 每行的内容 */
+    private val VALUE = "x".repeat(256)
+
+    override fun check(): List<Result> {
+        return listOf(
+            // 遍历大表时内存占用不随行数增长
+            sandbox("Database:ResultCursor constant memory") {
+                SQLiteSandbox.withTable { table, dataSource ->
+                    repeat(ROWS / 10000) { chunk ->
+                        table.workspace(dataSource) {
+                            insert("id", "value") { repeat(10000) { value(chunk * 10000 + it, VALUE) } }
+                        }.run()
+                    }
+                    val before = usedMemory()
+                    var peak = 0L
+                    var mapped = 0
+                    table.select(dataSource) { rows("id", "value") }.cursor(fetchSize = 500) {
+                        mapped++
+                        getString("value")
+                    }.use { cursor ->
+                        var index = 0
+                        cursor.asSequence().forEach {
+                            // 只有读取到的行才会被映射
+                            check(mapped == ++index) { "mapped=$mapped, index=$index" }
+                            if (index % (ROWS / 4) == 0) {
+                                peak = maxOf(peak, usedMemory() - before)
+                            }
+                        }
+                    }
+                    check(mapped == ROWS) { "mapped=$mapped" }
+                    // 一次性读入时至少需要 ROWS * VALUE.length 字节
+                    val materialized = ROWS.toLong() * VALUE.length
+                    check(peak < materialized / 4) { "peak=$peak, materialized=$materialized" }
+                }
+            }
+        )
+    }
+
+    /** 回收后已使用的堆内存 */
+    private fun usedMemory(): Long {
+        System.gc()
+        val runtime = Runtime.getRuntime()
+        return runtime.totalMemory() - runtime.freeMemory()
+    }
+}
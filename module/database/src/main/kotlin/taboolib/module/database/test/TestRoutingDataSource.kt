@@ -0,0 +1,89 @@
+package taboolib.module.database.test
+
+import taboolib.common.Test
+import taboolib.module.database.Host
+import taboolib.module.database.RoutingDataSource
+import taboolib.module.database.RoutingDataSource.StalenessPolicy
+import taboolib.module.database.SQLite
+import taboolib.module.database.Table
+
+/**
+ * TabooLib
+ * taboolib.module.database.test.TestRoutingDataSource
+ *
+ * 使用两个本地 SQLite 文件分别作为主库与副本，通过表中的内容判断查询被分配到哪一个数据库。
+ *
+ * @author agent
+ * @since 2026/10/19 12:56
+ */
+object TestRoutingDataSource : Test() {
+
+    override fun check(): List<Result> {
+        val result = arrayListOf<Result>()
+        // 允许延迟时查询分配到副本，写入始终在主库
+        result += sandbox("Database:RoutingDataSource EVENTUAL") {
+            withRouting(StalenessPolicy.EVENTUAL) { table, dataSource ->
+                check(table.read(dataSource) == "replica" && dataSource.replicaReads.get() == 1L)
+                table.insert(dataSource, "id", "value") { value(1, "written") }
+                check(table.read(dataSource) == "replica")
+                check(table.select(dataSource.primary) { rows("value"); orderBy("id") }.map { getString("value") } == listOf("primary", "written"))
+            }
+        }
+        // 停用副本时查询分配到主库
+        result += sandbox("Database:RoutingDataSource PRIMARY_ONLY") {
+            withRouting(StalenessPolicy.PRIMARY_ONLY) { table, dataSource ->
+                check(table.read(dataSource) == "primary" && dataSource.replicaReads.get() == 0L)
+            }
+        }
+        // 写入后的延迟窗口内查询分配到主库，窗口结束后回到副本
+        result += sandbox("Database:RoutingDataSource readAfterWrite()") {
+            withRouting(StalenessPolicy.readAfterWrite(500)) { table, dataSource ->
+                check(table.read(dataSource) == "replica")
+                table.insert(dataSource, "id", "value") { value(1, "written") }
+                check(table.read(dataSource) == "primary")
+                Thread.sleep(600)
+                check(table.read(dataSource) == "replica")
+            }
+        }
+        // 延迟窗口从写入工作空间释放连接时开始计算，而不是获取连接时
+        result += sandbox("Database:RoutingDataSource window starts on release") {
+            withRouting(StalenessPolicy.readAfterWrite(500)) { table, dataSource ->
+                table.transaction(dataSource) {
+                    insert("id", "value") {
+                        value(1, "slow")
+                        // 模拟耗时超过延迟窗口的写入
+                        onFinally { Thread.sleep(600) }
+                    }
+                }.getOrThrow()
+                check(table.read(dataSource) == "primary")
+            }
+        }
+        return result
+    }
+
+    /**
+     * 读取 id 为 0 的行，主库与副本中的内容分别为 "primary" 与 "replica"
+     */
+    private fun Table<Host<SQLite>, SQLite>.read(dataSource: RoutingDataSource): String {
+        return select(dataSource) { rows("value"); where("id" eq 0) }.first { getString("value") }
+    }
+
+    /**
+     * 创建主库与副本并写入初始内容
+     */
+    private fun withRouting(policy: StalenessPolicy, func: (table: Table<Host<SQLite>, SQLite>, dataSource: RoutingDataSource) -> Unit) {
+        SQLiteSandbox.withHost { primaryHost ->
+            SQLiteSandbox.withHost { replicaHost ->
+                val table = SQLiteSandbox.table(primaryHost)
+                val replicaTable = SQLiteSandbox.table(replicaHost)
+                RoutingDataSource(SQLiteSandbox.dataSource(primaryHost), listOf(SQLiteSandbox.dataSource(replicaHost)), policy).use { dataSource ->
+                    table.createTable(dataSource.primary)
+                    table.insert(dataSource.primary, "id", "value") { value(0, "primary") }
+                    replicaTable.createTable(dataSource.replicas[0])
+                    replicaTable.insert(dataSource.replicas[0], "id", "value") { value(0, "replica") }
+                    func(table, dataSource)
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package taboolib.module.database.test
+
+import taboolib.common.Test
+import taboolib.module.database.DatabaseExecutor
+import taboolib.module.database.SQLiteWriter
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * TabooLib
+ * taboolib.module.database.test.TestSQLiteWriter
+ *
+ * @author agent
+ * @since 2026/10/19 12:56
+ */
+object TestSQLiteWriter : Test() {
+
+    /** 同时写入的线程数量 */
+    const val THREADS = 8
+
+    /** 每个线程的写入次数 */
+    const val WRITES = 200
+
+    override fun check(): List<Result> {
+        val result = arrayListOf<Result>()
+        // 所有写入完成，且被合并到更少的事务中
+        result += sandbox("Database:SQLiteWriter concurrent writes") {
+            SQLiteSandbox.withTable { table, dataSource ->
+                val writer = SQLiteWriter(dataSource)
+                val pool = Executors.newFixedThreadPool(THREADS)
+                try {
+                    val futures = pool.invokeAll(List(THREADS) { thread ->
+                        Callable {
+                            List(WRITES) { index ->
+                                writer.submit(table) { insert("id", "value") { value(thread * WRITES + index, "value") } }
+                            }
+                        }
+                    }).flatMap { it.get() }
+                    CompletableFuture.allOf(*futures.toTypedArray()).join()
+                    val count = table.select(dataSource) { rows("count(*)") }.first { getInt(1) }
+                    check(count == THREADS * WRITES && writer.writes.get() == count.toLong()) { "count=$count, writes=${writer.writes.get()}" }
+                    check(writer.commits.get() < writer.writes.get()) { "commits=${writer.commits.get()}, writes=${writer.writes.get()}" }
+                } finally {
+                    pool.shutdown()
+                    writer.shutdown()
+                }
+            }
+        }
+        // 连接池关闭后写入线程结束，执行器被移除
+        result += sandbox("Database:SQLiteWriter stops with its pool") {
+            SQLiteSandbox.withHost { host ->
+                val dataSource = SQLiteSandbox.dataSource(host)
+                val executor = DatabaseExecutor.of(dataSource)
+                val writer = executor.writer!!
+                dataSource.close()
+                val deadline = System.currentTimeMillis() + 5000
+                while (writer.isAlive && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10)
+                }
+                check(!writer.isAlive) { "writer thread is still running" }
+                val rejected = writer.submit(SQLiteSandbox.table(host)) { }.handle { _, ex -> ex is RejectedExecutionException }.join()
+                check(rejected) { "write was accepted after the pool was closed" }
+                val next = DatabaseExecutor.of(dataSource)
+                DatabaseExecutor.shutdown(dataSource)
+                check(next !== executor) { "executor was not removed" }
+            }
+        }
+        // 多个线程通过写入队列写入，与各自直接写入（互相等待数据库锁）对比
+        result += SQLiteSandbox.withTable { table, dataSource ->
+            val writer = SQLiteWriter(dataSource)
+            val pool = Executors.newFixedThreadPool(THREADS)
+            val failures = AtomicInteger()
+            try {
+                val benchmark = benchmark(
+                    "Database:SQLiteWriter $THREADS threads x $WRITES writes", 5, mapOf(
+                        "writer" to Runnable {
+                            val futures = pool.invokeAll(List(THREADS) {
+                                Callable { List(WRITES) { index -> writer.submit(table) { insert("id", "value") { value(index, "value") } } } }
+                            }).flatMap { it.get() }
+                            CompletableFuture.allOf(*futures.toTypedArray()).join()
+                        },
+                        "direct" to Runnable {
+                            pool.invokeAll(List(THREADS) {
+                                Callable {
+                                    repeat(WRITES) { index ->
+                                        // 直接写入可能因数据库被锁定而失败（SQLITE_BUSY）
+                                        try {
+                                            table.insert(dataSource, "id", "value") { value(index, "value") }
+                                        } catch (_: Throwable) {
+                                            failures.incrementAndGet()
+                                        }
+                                    }
+                                }
+                            }).forEach { it.get() }
+                        }
+                    ), warmup = 1
+                )
+                if (benchmark is Success) Success.of("${benchmark.reason}, direct failures=${failures.get()}") else benchmark
+            } finally {
+                pool.shutdown()
+                writer.shutdown()
+            }
+        }
+        return result
+    }
+}